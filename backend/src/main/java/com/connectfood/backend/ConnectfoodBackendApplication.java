@@ -3,10 +3,16 @@ package com.connectfood.backend;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 
 @SpringBootApplication
+@EnableAsync
+@EnableCaching
+@EnableScheduling
 public class ConnectfoodBackendApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,64 @@
+package com.connectfood.backend.config;
+
+import org.bson.Document;
+
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Representative shapes of the request-path queries, explained at startup to prove each one is
+ * served by an index. Values are placeholders; only the shape matters to the planner. Keep this in
+ * step with the repository methods and services when a query changes or a new one is added.
+ */
+final class IndexedQueries {
+
+    private static final Document NEWEST_FIRST = new Document("createdAt", -1).append("_id", -1);
+
+    static final List<IndexedQuery> ALL = List.of(
+            new IndexedQuery("DonorRepository.findByEmail", "donors",
+                    new Document("email", "probe@example.com"), null),
+            new IndexedQuery("RecipientRepository.findByEmail", "recipients",
+                    new Document("email", "probe@example.com"), null),
+            new IndexedQuery("DonationRepository.findDonorPage", "donations",
+                    new Document("donorEmail", "probe@example.com"), NEWEST_FIRST),
+            new IndexedQuery("DonationRepository.findCollectedPage", "donations",
+                    new Document("status", "COLLECTED"), NEWEST_FIRST),
+            new IndexedQuery("DonationRepository.findLivePage", "donations",
+                    new Document("status", "AVAILABLE")
+                            .append("cityKey", Pattern.compile("^pune"))
+                            .append("districtKey", Pattern.compile("^pune"))
+                            .append("quantity", new Document("$gte", 1)),
+                    NEWEST_FIRST),
+            new IndexedQuery("DonationRepository.findByStatusAndQuantityGreaterThanEqualAndLocationNear", "donations",
+                    new Document("status", "AVAILABLE")
+                            .append("quantity", new Document("$gte", 1))
+                            .append("location", new Document("$nearSphere", new Document("$geometry",
+                                    new Document("type", "Point").append("coordinates", List.of(73.85, 18.52)))
+                                    .append("$maxDistance", 10_000))),
+                    null),
+            new IndexedQuery("DonationRepository.recipientStats", "donations",
+                    new Document("initiatedByEmail", "probe@example.com"), null),
+            new IndexedQuery("DonationLifecycleService.expireOverdue", "donations",
+                    new Document("status", "AVAILABLE")
+                            .append("expiryDate", new Document("$lte", new Date())),
+                    new Document("expiryDate", 1)),
+            new IndexedQuery("DonationLifecycleService.releaseStaleReservations", "donations",
+                    new Document("status", "RESERVED")
+                            .append("initiatedAt", new Document("$lte", new Date())),
+                    new Document("initiatedAt", 1)));
+
+    private IndexedQueries() {
+    }
+
+    record IndexedQuery(String name, String collection, Document filter, Document sort) {
+
+        Document explainCommand() {
+            Document find = new Document("find", collection).append("filter", filter);
+            if (sort != null) {
+                find.append("sort", sort);
+            }
+            return new Document("explain", find).append("verbosity", "queryPlanner");
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.connectfood.backend.config;
+
+import com.connectfood.backend.config.IndexedQueries.IndexedQuery;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes declared on every @Document class, then verifies them: each declared index
+ * must exist and each query in {@link IndexedQueries} must plan without a collection scan. Spring
+ * Boot leaves auto index creation off, so this is the only place indexes are built. Problems are
+ * logged, or abort startup with mongo.indexes.verification=fail; an unreachable Mongo only warns.
+ */
+@Component
+@Order(1)
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    // warn, fail or off
+    @Value("${mongo.indexes.verification:warn}")
+    private String verification;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String mode = verification.toLowerCase(Locale.ROOT);
+        List<String> problems;
+        try {
+            problems = ensureIndexes(!"off".equals(mode));
+            if (!"off".equals(mode)) {
+                problems.addAll(verifyQueryPlans());
+            }
+        } catch (DataAccessResourceFailureException e) {
+            log.warn("Mongo unavailable, skipped index creation and verification: {}", e.getMessage());
+            return;
+        }
+
+        if (problems.isEmpty()) {
+            return;
+        }
+        String report = String.join("\n  ", problems);
+        if ("fail".equals(mode)) {
+            throw new IllegalStateException("Mongo index verification failed:\n  " + report);
+        }
+        log.warn("Mongo index verification found problems:\n  {}", report);
+    }
+
+    private List<String> ensureIndexes(boolean verify) {
+        List<String> problems = new ArrayList<>();
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : documents()) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+            List<IndexDefinition> declared = new ArrayList<>();
+            resolver.resolveIndexFor(entity.getType()).forEach(declared::add);
+            for (IndexDefinition index : declared) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (DataAccessResourceFailureException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // E.g. duplicate emails block a unique index; verification reports it as missing
+                    log.warn("Could not create index {} on {}: {}",
+                            index.getIndexKeys(), entity.getCollection(), e.getMessage());
+                }
+            }
+            if (verify) {
+                Set<String> existing = indexOps.getIndexInfo().stream()
+                        .map(IndexInfo::getName)
+                        .collect(Collectors.toSet());
+                for (IndexDefinition index : declared) {
+                    String name = index.getIndexOptions().getString("name");
+                    if (name != null && !existing.contains(name)) {
+                        problems.add(entity.getCollection() + ": index " + name + " " + index.getIndexKeys() + " is missing");
+                    }
+                }
+            }
+        }
+        return problems;
+    }
+
+    private List<String> verifyQueryPlans() {
+        List<String> problems = new ArrayList<>();
+        for (IndexedQuery query : IndexedQueries.ALL) {
+            try {
+                Document explain = mongoTemplate.executeCommand(query.explainCommand());
+                if (usesCollectionScan(explain)) {
+                    problems.add(query.name() + " runs as a collection scan on " + query.collection());
+                }
+            } catch (DataAccessResourceFailureException e) {
+                throw e;
+            } catch (Exception e) {
+                // $nearSphere without its 2dsphere index fails to plan at all
+                problems.add(query.name() + " could not be planned: " + e.getMessage());
+            }
+        }
+        return problems;
+    }
+
+    private Collection<MongoPersistentEntity<?>> documents() {
+        return mappingContext.getPersistentEntities().stream()
+                .filter(entity -> entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class))
+                .toList();
+    }
+
+    // Walks the winning plan of an explain result; covers the classic (inputStage) and SBE (queryPlan) layouts
+    static boolean usesCollectionScan(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        return queryPlanner != null && containsStage(queryPlanner.get("winningPlan", Document.class), "COLLSCAN");
+    }
+
+    private static boolean containsStage(Document plan, String stage) {
+        if (plan == null) {
+            return false;
+        }
+        if (stage.equals(plan.getString("stage"))) {
+            return true;
+        }
+        if (containsStage(plan.get("queryPlan", Document.class), stage)
+                || containsStage(plan.get("inputStage", Document.class), stage)) {
+            return true;
+        }
+        List<?> inputStages = plan.get("inputStages", List.class);
+        if (inputStages != null) {
+            for (Object input : inputStages) {
+                if (input instanceof Document child && containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
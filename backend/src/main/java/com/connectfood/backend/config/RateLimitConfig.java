@@ -1,8 +1,11 @@
 package com.connectfood.backend.config;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import com.connectfood.backend.security.LocalRateLimitBucketStore;
+import com.connectfood.backend.security.RateLimitBucketStore;
+import com.connectfood.backend.security.RateLimitFilter;
+import com.connectfood.backend.security.RateLimitPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,12 +14,40 @@ import java.time.Duration;
 @Configuration
 public class RateLimitConfig {
 
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+
+    // Requests per minute, per user (per IP for login and anonymous calls)
+    @Value("${rateLimit.auth.perMinute:10}")
+    private long authPerMinute;
+
+    @Value("${rateLimit.write.perMinute:30}")
+    private long writePerMinute;
+
+    @Value("${rateLimit.read.perMinute:100}")
+    private long readPerMinute;
+
+    @Value("${rateLimit.maxTrackedCallers:100000}")
+    private long maxTrackedCallers;
+
+    // In-process buckets; swap for a shared-store implementation to enforce limits across instances
+    @Bean
+    public RateLimitBucketStore rateLimitBucketStore() {
+        return new LocalRateLimitBucketStore(maxTrackedCallers, PERIOD);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimitBucketStore rateLimitBucketStore) {
+        return new RateLimitFilter(rateLimitBucketStore,
+                new RateLimitPolicy("auth", authPerMinute, PERIOD),
+                new RateLimitPolicy("write", writePerMinute, PERIOD),
+                new RateLimitPolicy("read", readPerMinute, PERIOD));
+    }
+
+    // Only runs inside the security chain (after JWT authentication), not as a plain servlet filter
     @Bean
-    public Bucket rateLimitBucket() {
-        // Allow 100 requests per minute per user
-        Bandwidth limit = Bandwidth.classic(100, Refill.greedy(100, Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
     }
-} 
\ No newline at end of file
+}
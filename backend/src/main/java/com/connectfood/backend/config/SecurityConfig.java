@@ -1,6 +1,9 @@
 package com.connectfood.backend.config;
 
 import com.connectfood.backend.security.JwtAuthenticationFilter;
+import com.connectfood.backend.security.RateLimitFilter;
+import com.connectfood.backend.security.VerifiedTokenCache;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,11 +17,14 @@ import org.springframework.security.web.header.writers.CrossOriginOpenerPolicyHe
 public class SecurityConfig {
 
     @Autowired
-    private JwtConfig jwtConfig;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtConfig);
+        return new JwtAuthenticationFilter(verifiedTokenCache);
     }
 
     @Bean
@@ -32,6 +38,8 @@ public class SecurityConfig {
             )
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Streaming responses finish on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/donations/available").authenticated()
                 .anyRequest().authenticated()
@@ -39,6 +47,8 @@ public class SecurityConfig {
 
         // Add JWT filter only for non-auth endpoints
         http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+        // Per-user limits need the principal, so rate limiting runs right after authentication
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
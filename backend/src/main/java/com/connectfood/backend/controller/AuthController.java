@@ -1,10 +1,8 @@
 package com.connectfood.backend.controller;
 
-import com.connectfood.backend.model.Donor;
-import com.connectfood.backend.model.Recipient;
-import com.connectfood.backend.repository.DonorRepository;
-import com.connectfood.backend.repository.RecipientRepository;
+import com.connectfood.backend.model.Role;
 import com.connectfood.backend.service.GoogleTokenVerifier;
+import com.connectfood.backend.service.UserAccountService;
 import com.connectfood.backend.security.JwtUtil;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken.Payload;
 
@@ -14,8 +12,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -23,10 +21,7 @@ import java.util.Optional;
 public class AuthController {
 
     @Autowired
-    private DonorRepository donorRepository;
-
-    @Autowired
-    private RecipientRepository recipientRepository;
+    private UserAccountService userAccountService;
 
     @Autowired
     private GoogleTokenVerifier googleTokenVerifier;
@@ -48,46 +43,21 @@ public class AuthController {
         String name = (String) payload.get("name");
         String profilePicture = (String) payload.get("picture");
 
+        Role requested;
         if ("donor".equals(role)) {
-            Optional<Donor> existing = donorRepository.findByEmail(email);
-            if (existing.isEmpty()) {
-                Donor donor = new Donor(email, name);
-                donor.setProfilePicture(profilePicture);
-                donorRepository.save(donor);
-            } else {
-                // Update existing donor's profile picture and last login
-                Donor donor = existing.get();
-                donor.setProfilePicture(profilePicture);
-                donor.setLastLoginAt(new java.util.Date());
-                donorRepository.save(donor);
-            }
-            // Check if recipient exists with same email
-            if (recipientRepository.findByEmail(email).isPresent()) {
-                return ResponseEntity.badRequest().body("User already registered as recipient");
-            }
+            requested = Role.DONOR;
         } else if ("recipient".equals(role)) {
-            Optional<Recipient> existing = recipientRepository.findByEmail(email);
-            if (existing.isEmpty()) {
-                Recipient recipient = new Recipient();
-                recipient.setEmail(email);
-                recipient.setName(name);
-                recipient.setProfilePicture(profilePicture);
-                recipientRepository.save(recipient);
-            } else {
-                // Update existing recipient's profile picture and last login
-                Recipient recipient = existing.get();
-                recipient.setProfilePicture(profilePicture);
-                recipient.setLastLoginAt(new java.util.Date());
-                recipientRepository.save(recipient);
-            }
-            // Check if donor exists with same email
-            if (donorRepository.findByEmail(email).isPresent()) {
-                return ResponseEntity.badRequest().body("User already registered as donor");
-            }
+            requested = Role.RECIPIENT;
         } else {
             return ResponseEntity.badRequest().body("Invalid role");
         }
 
+        Role registered = userAccountService.login(email, name, profilePicture, requested);
+        if (registered != requested) {
+            return ResponseEntity.badRequest()
+                    .body("User already registered as " + registered.name().toLowerCase(Locale.ROOT));
+        }
+
         String jwt = jwtUtil.generateToken(email, role);
 
         return ResponseEntity.ok(Map.of("jwtToken", jwt, "role", role));
@@ -1,64 +1,141 @@
 package com.connectfood.backend.controller;
 
+import com.connectfood.backend.dto.BatchItemResult;
+import com.connectfood.backend.dto.DonationCursor;
+import com.connectfood.backend.event.DonationEvent;
 import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
 import com.connectfood.backend.model.Donor;
 import com.connectfood.backend.model.Recipient;
 import com.connectfood.backend.repository.DonationRepository;
-import com.connectfood.backend.repository.DonorRepository;
-import com.connectfood.backend.repository.RecipientRepository;
-import com.connectfood.backend.security.JwtUtil;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import com.connectfood.backend.security.AuthenticatedUser;
+import com.connectfood.backend.service.DonationBatchService;
+import com.connectfood.backend.service.DonationClaimService;
+import com.connectfood.backend.service.DonationMatchingService;
+import com.connectfood.backend.service.DonationStreamService;
+import com.connectfood.backend.service.LiveDonationIndex;
+import com.connectfood.backend.service.UserLookupService;
+import com.connectfood.backend.service.UserStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/donations")
-@CrossOrigin(origins = "http://localhost:5173") // adjust this to your frontend origin
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = DonationController.NEXT_CURSOR_HEADER) // adjust this to your frontend origin
 public class DonationController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String NDJSON = "application/x-ndjson";
+
+    // Bounds for the nearest-first search so a single request can't fan out over the whole collection
+    private static final double MAX_RADIUS_KM = 100;
+    private static final int MAX_NEARBY_LIMIT = 100;
+
+    // Listing pages are capped; full exports go through the NDJSON streaming variants
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private DonationRepository donationRepository;
 
     @Autowired
-    private DonorRepository donorRepository;
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private DonationClaimService donationClaimService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private DonationStreamService donationStreamService;
+
+    @Autowired
+    private LiveDonationIndex liveDonationIndex;
+
+    @Autowired
+    private DonationMatchingService donationMatchingService;
 
     @Autowired
-    private RecipientRepository recipientRepository;
+    private DonationBatchService donationBatchService;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private ApplicationEventPublisher eventPublisher;
 
-    // Helper method to extract email from JWT token
-    private String getEmailFromToken(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) return null;
-        String token = authHeader.substring(7);
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Fetches one extra row to learn whether another page exists, and hands its cursor back as a header
+    private ResponseEntity<?> page(String cursor, int limit, PageQuery query) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().body("limit must be positive");
+        }
+        DonationCursor after;
         try {
-            Jws<Claims> jws = jwtUtil.validateToken(token);
-            return jws.getBody().getSubject();
-        } catch (Exception e) {
-            return null;
+            after = DonationCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
         }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        List<Donation> donations = query.fetch(after, pageSize + 1);
+        if (donations.size() <= pageSize) {
+            return ResponseEntity.ok(donations);
+        }
+        List<Donation> page = donations.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, DonationCursor.after(page.get(pageSize - 1)).encode())
+                .body(page);
+    }
+
+    // Writes one JSON document per line straight from the Mongo cursor, so memory stays bounded
+    private ResponseEntity<StreamingResponseBody> ndjson(Supplier<Stream<Donation>> source) {
+        StreamingResponseBody body = (OutputStream out) -> {
+            try (Stream<Donation> donations = source.get()) {
+                Iterator<Donation> it = donations.iterator();
+                while (it.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().body(body);
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<Donation> fetch(DonationCursor after, int limit);
     }
 
     // ===========================
     // DONOR: Create a donation
     // ===========================
     @PostMapping
-    public ResponseEntity<?> createDonation(@RequestBody Donation donation, @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> createDonation(@RequestBody Donation donation, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = getEmailFromToken(authHeader);
-            if (email == null) {
+            if (user == null) {
                 return ResponseEntity.status(401).body("Invalid token");
             }
+            String email = user.email();
 
             // Get donor and check profile completion
-            Optional<Donor> donorOpt = donorRepository.findByEmail(email);
+            Optional<Donor> donorOpt = userLookupService.findDonor(email);
             if (donorOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body("Donor not found");
             }
@@ -71,25 +148,70 @@ public class DonationController {
             donation.setDonorEmail(email);
             donation.setDonorName(donor.getName());
             donation.setCreatedAt(new Date());
-            donation.setCollected(false);
+            donation.setStatus(DonationStatus.AVAILABLE);
+            donation.refreshDerivedFields();
 
             Donation savedDonation = donationRepository.save(donation);
+            userStatsService.recordDonationCreated(savedDonation);
+            eventPublisher.publishEvent(new DonationEvent(DonationEvent.Type.CREATED, savedDonation));
             return ResponseEntity.ok(savedDonation);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to create donation: " + e.getMessage());
         }
     }
 
+    // ===========================
+    // DONOR: Create donations in bulk
+    // ===========================
+    @PostMapping("/batch")
+    public ResponseEntity<?> createDonations(@RequestBody List<Donation> donations, @AuthenticationPrincipal AuthenticatedUser user) {
+        try {
+            if (user == null) {
+                return ResponseEntity.status(401).body("Invalid token");
+            }
+            if (donations == null || donations.isEmpty()) {
+                return ResponseEntity.badRequest().body("No donations to create");
+            }
+            if (donations.size() > DonationBatchService.MAX_BATCH_SIZE) {
+                return ResponseEntity.badRequest().body("At most " + DonationBatchService.MAX_BATCH_SIZE + " donations per batch");
+            }
+
+            // Donor is resolved once for the whole batch
+            Optional<Donor> donorOpt = userLookupService.findDonor(user.email());
+            if (donorOpt.isEmpty()) {
+                return ResponseEntity.badRequest().body("Donor not found");
+            }
+            if (!donorOpt.get().isProfileComplete()) {
+                return ResponseEntity.badRequest().body("Please complete your profile before creating donations");
+            }
+
+            // Per-item results; invalid or failed items don't fail the request
+            return ResponseEntity.ok(donationBatchService.createAll(donorOpt.get(), donations));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to create donations: " + e.getMessage());
+        }
+    }
+
     // ===========================
     // DONOR: View my donations
     // ===========================
     @GetMapping("/my")
-    public ResponseEntity<?> getMyDonations(@RequestHeader("Authorization") String authHeader) {
-        String email = getEmailFromToken(authHeader);
-        if (email == null) return ResponseEntity.status(401).body("Invalid or missing token");
+    public ResponseEntity<?> getMyDonations(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (user == null) return ResponseEntity.status(401).body("Invalid or missing token");
+        String email = user.email();
+
+        return page(cursor, limit, (after, size) -> donationRepository.findDonorPage(email, after, size));
+    }
+
+    @GetMapping(value = "/my", produces = NDJSON)
+    public ResponseEntity<?> streamMyDonations(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) return ResponseEntity.status(401).body("Invalid or missing token");
+        String email = user.email();
 
-        List<Donation> myDonations = donationRepository.findByDonorEmail(email);
-        return ResponseEntity.ok(myDonations);
+        return ndjson(() -> donationRepository.streamDonor(email));
     }
 
     // ===========================
@@ -97,76 +219,153 @@ public class DonationController {
     // ===========================
     @GetMapping("/live")
     public ResponseEntity<?> getLiveDonations(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "") String city,
+            @RequestParam(defaultValue = "") String district,
+            @RequestParam(defaultValue = "0") int minQty,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+
+        if (user == null) return ResponseEntity.status(401).body("Invalid or missing token");
+
+        // Nearest-first mode: bounded radius search over the in-memory grid instead of the city/district scan
+        if (lat != null || lng != null) {
+            if (lat == null || lng == null || lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+                return ResponseEntity.badRequest().body("Both lat and lng must be valid coordinates");
+            }
+            if (radiusKm <= 0 || limit <= 0) {
+                return ResponseEntity.badRequest().body("radiusKm and limit must be positive");
+            }
+            List<Donation> nearby = liveDonationIndex.findNearby(
+                    lat, lng, Math.min(radiusKm, MAX_RADIUS_KM), minQty, Math.min(limit, MAX_NEARBY_LIMIT));
+            return ResponseEntity.ok(nearby);
+        }
+
+        return page(cursor, limit, (after, size) -> liveDonationIndex.findLivePage(city, district, minQty, after, size));
+    }
+
+    @GetMapping(value = "/live", produces = NDJSON)
+    public ResponseEntity<?> streamLiveDonations(
+            @AuthenticationPrincipal AuthenticatedUser user,
             @RequestParam(defaultValue = "") String city,
             @RequestParam(defaultValue = "") String district,
             @RequestParam(defaultValue = "0") int minQty) {
+        if (user == null) return ResponseEntity.status(401).body("Invalid or missing token");
+
+        return ndjson(() -> liveDonationIndex.streamLive(city, district, minQty));
+    }
 
-        String email = getEmailFromToken(authHeader);
-        if (email == null) return ResponseEntity.status(401).body("Invalid or missing token");
+    // ===========================
+    // RECIPIENT: Recommended donations
+    // ===========================
+    @GetMapping("/recommended")
+    public ResponseEntity<?> getRecommendedDonations(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (user == null) return ResponseEntity.status(401).body("Invalid or missing token");
+
+        Optional<Recipient> recipientOpt = userLookupService.findRecipient(user.email());
+        if (recipientOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body("Recipient not found");
+        }
+        if (!recipientOpt.get().isProfileComplete()) {
+            return ResponseEntity.badRequest().body("Please complete your profile to get recommendations");
+        }
+        if ((lat == null) != (lng == null) || (lat != null && (lat < -90 || lat > 90 || lng < -180 || lng > 180))) {
+            return ResponseEntity.badRequest().body("Both lat and lng must be valid coordinates");
+        }
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().body("limit must be positive");
+        }
 
-        List<Donation> liveDonations = donationRepository
-                .findByCollectedFalseAndCityContainingIgnoreCaseAndDistrictContainingIgnoreCaseAndQuantityGreaterThanEqual(
-                        city, district, minQty);
-        return ResponseEntity.ok(liveDonations);
+        // Precomputed per recipient; only an explicit lat/lng is scored on the fly
+        return ResponseEntity.ok(donationMatchingService.recommend(
+                recipientOpt.get(), lat, lng, Math.min(limit, DonationMatchingService.TOP_K)));
     }
 
     // ===========================
-    // RECIPIENT: Initiate collection
+    // RECIPIENT: Live donation events (Server-Sent Events)
     // ===========================
-    @PutMapping("/{id}/initiate")
-    public ResponseEntity<?> initiateCollection(@PathVariable String id, @RequestHeader("Authorization") String authHeader) {
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDonationEvents(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "") String city,
+            @RequestParam(defaultValue = "") String district,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "10") double radiusKm) {
+        // The emitter must be the declared body type for Spring to stream it, so errors are raised instead
+        if (user == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or missing token");
+
+        if ((lat == null) != (lng == null) || (lat != null && (lat < -90 || lat > 90 || lng < -180 || lng > 180))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Both lat and lng must be valid coordinates");
+        }
+        if (radiusKm <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "radiusKm must be positive");
+        }
+
+        return donationStreamService
+                .subscribe(city, district, lat, lng, Math.min(radiusKm, MAX_RADIUS_KM))
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE, "Too many live subscribers, try again later"));
+    }
+
+    // ===========================
+    // DONOR: Cancel a donation
+    // ===========================
+    @PutMapping("/{id}/cancel")
+    public ResponseEntity<?> cancelDonation(@PathVariable String id, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = getEmailFromToken(authHeader);
-            if (email == null) {
+            if (user == null) {
                 return ResponseEntity.status(401).body("Invalid token");
             }
 
-            // Use MongoDB's atomic operations to prevent race conditions
-            Optional<Donation> donationOpt = donationRepository.findById(id);
-            if (donationOpt.isEmpty()) {
-                return ResponseEntity.notFound().build();
+            // Only the donor can cancel, and only before the donation is collected or expires
+            Optional<Donation> cancelled = donationClaimService.cancel(id, user.email());
+            if (cancelled.isEmpty()) {
+                return ResponseEntity.status(409).body("Donation can no longer be cancelled");
             }
+            userStatsService.recordDonationCancelled(cancelled.get());
+            eventPublisher.publishEvent(new DonationEvent(DonationEvent.Type.CANCELLED, cancelled.get()));
 
-            Donation donation = donationOpt.get();
-            
-            // Check if already collected or initiated
-            if (donation.isCollected()) {
-                return ResponseEntity.badRequest().body("Donation already collected");
-            }
+            return ResponseEntity.ok(cancelled.get());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to cancel donation: " + e.getMessage());
+        }
+    }
 
-            if (donation.isCollectionInitiated()) {
-                return ResponseEntity.badRequest().body("Collection already initiated");
+    // ===========================
+    // RECIPIENT: Initiate collection
+    // ===========================
+    @PutMapping("/{id}/initiate")
+    public ResponseEntity<?> initiateCollection(@PathVariable String id, @AuthenticationPrincipal AuthenticatedUser user) {
+        try {
+            if (user == null) {
+                return ResponseEntity.status(401).body("Invalid token");
             }
+            String email = user.email();
 
-            // Get recipient organization name
-            Optional<Recipient> recipientOpt = recipientRepository.findByEmail(email);
+            // Get recipient
+            Optional<Recipient> recipientOpt = userLookupService.findRecipient(email);
             if (recipientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body("Recipient not found");
             }
 
-            // Use atomic update to prevent race conditions
-            String organizationName = recipientOpt.get().getOrganizationName();
-            Date initiatedAt = new Date();
-            
-            // Try to atomically update the donation
-            Donation updatedDonation = donationRepository.findById(id)
-                .map(existingDonation -> {
-                    if (existingDonation.isCollected() || existingDonation.isCollectionInitiated()) {
-                        return null; // Already processed
-                    }
-                    existingDonation.setCollectionInitiated(true);
-                    existingDonation.setInitiatedBy(organizationName);
-                    existingDonation.setInitiatedAt(initiatedAt);
-                    return donationRepository.save(existingDonation);
-                })
-                .orElse(null);
-
-            if (updatedDonation == null) {
-                return ResponseEntity.badRequest().body("Donation is no longer available for collection");
-            }
-
-            return ResponseEntity.ok(updatedDonation);
+            // Single conditional update: only one concurrent claimant can win
+            Optional<Donation> claimed = donationClaimService.initiate(id, recipientOpt.get());
+            if (claimed.isEmpty()) {
+                return ResponseEntity.status(409).body("Donation is no longer available for collection");
+            }
+            userStatsService.recordCollectionInitiated(claimed.get());
+            eventPublisher.publishEvent(new DonationEvent(DonationEvent.Type.INITIATED, claimed.get()));
+
+            return ResponseEntity.ok(claimed.get());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to initiate collection: " + e.getMessage());
         }
@@ -176,50 +375,68 @@ public class DonationController {
     // RECIPIENT: Collect a donation
     // ===========================
     @PutMapping("/{id}/collect")
-    public ResponseEntity<?> collectDonation(@PathVariable String id, @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> collectDonation(@PathVariable String id, @AuthenticationPrincipal AuthenticatedUser user) {
         try {
-            String email = getEmailFromToken(authHeader);
-            if (email == null) {
+            if (user == null) {
                 return ResponseEntity.status(401).body("Invalid token");
             }
+            String email = user.email();
 
             // Get recipient organization name first
-            Optional<Recipient> recipientOpt = recipientRepository.findByEmail(email);
+            Optional<Recipient> recipientOpt = userLookupService.findRecipient(email);
             if (recipientOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body("Recipient not found");
             }
             String organizationName = recipientOpt.get().getOrganizationName();
 
-            // Use atomic update to prevent race conditions
-            Donation updatedDonation = donationRepository.findById(id)
-                .map(donation -> {
-                    if (donation.isCollected()) {
-                        return null; // Already collected
-                    }
+            // Only succeeds while the donation is initiated by this same organization and not yet collected
+            Optional<Donation> collected = donationClaimService.collect(id, organizationName);
+            if (collected.isEmpty()) {
+                return ResponseEntity.status(409).body("Donation cannot be collected. It may have been collected by another organization or is not available.");
+            }
+            userStatsService.recordDonationCollected(collected.get());
+            eventPublisher.publishEvent(new DonationEvent(DonationEvent.Type.COLLECTED, collected.get()));
 
-                    if (!donation.isCollectionInitiated()) {
-                        return null; // Not initiated
-                    }
+            return ResponseEntity.ok(collected.get());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to collect donation: " + e.getMessage());
+        }
+    }
 
-                    // Verify the same recipient is collecting
-                    if (!donation.getInitiatedBy().equals(organizationName)) {
-                        return null; // Wrong recipient
-                    }
+    // ===========================
+    // RECIPIENT: Initiate / collect in bulk
+    // ===========================
+    @PutMapping("/batch/initiate")
+    public ResponseEntity<?> initiateCollections(@RequestBody List<String> ids, @AuthenticationPrincipal AuthenticatedUser user) {
+        return claimBatch(ids, user, donationBatchService::initiateAll, "Failed to initiate collections: ");
+    }
 
-                    donation.setCollected(true);
-                    donation.setCollectedBy(organizationName);
-                    donation.setCollectedAt(new Date());
-                    return donationRepository.save(donation);
-                })
-                .orElse(null);
+    @PutMapping("/batch/collect")
+    public ResponseEntity<?> collectDonations(@RequestBody List<String> ids, @AuthenticationPrincipal AuthenticatedUser user) {
+        return claimBatch(ids, user, donationBatchService::collectAll, "Failed to collect donations: ");
+    }
 
-            if (updatedDonation == null) {
-                return ResponseEntity.badRequest().body("Donation cannot be collected. It may have been collected by another organization or is not available.");
+    // Recipient is resolved once; every id gets a won/lost result and losing ones don't fail the request
+    private ResponseEntity<?> claimBatch(List<String> ids, AuthenticatedUser user,
+                                         BiFunction<Recipient, List<String>, List<BatchItemResult>> claim, String failure) {
+        try {
+            if (user == null) {
+                return ResponseEntity.status(401).body("Invalid token");
+            }
+            if (ids == null || ids.isEmpty()) {
+                return ResponseEntity.badRequest().body("No donation ids given");
+            }
+            if (ids.size() > DonationBatchService.MAX_BATCH_SIZE) {
+                return ResponseEntity.badRequest().body("At most " + DonationBatchService.MAX_BATCH_SIZE + " donations per batch");
             }
 
-            return ResponseEntity.ok(updatedDonation);
+            Optional<Recipient> recipientOpt = userLookupService.findRecipient(user.email());
+            if (recipientOpt.isEmpty()) {
+                return ResponseEntity.badRequest().body("Recipient not found");
+            }
+            return ResponseEntity.ok(claim.apply(recipientOpt.get(), ids));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Failed to collect donation: " + e.getMessage());
+            return ResponseEntity.badRequest().body(failure + e.getMessage());
         }
     }
 
@@ -227,11 +444,20 @@ public class DonationController {
     // RECIPIENT: View collected donations
     // ===========================
     @GetMapping("/received")
-    public ResponseEntity<?> getReceivedDonations(@RequestHeader("Authorization") String authHeader) {
-        String email = getEmailFromToken(authHeader);
-        if (email == null) return ResponseEntity.status(401).body("Invalid or missing token");
+    public ResponseEntity<?> getReceivedDonations(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (user == null) return ResponseEntity.status(401).body("Invalid or missing token");
+
+        return page(cursor, limit, (after, size) -> donationRepository.findCollectedPage(after, size));
+    }
+
+    @GetMapping(value = "/received", produces = NDJSON)
+    public ResponseEntity<?> streamReceivedDonations(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) return ResponseEntity.status(401).body("Invalid or missing token");
 
-        List<Donation> receivedDonations = donationRepository.findByCollectedTrue();
-        return ResponseEntity.ok(receivedDonations);
+        return ndjson(donationRepository::streamCollected);
     }
+
 }
@@ -1,12 +1,13 @@
 package com.connectfood.backend.controller;
 
+import com.connectfood.backend.dto.DonationStats;
 import com.connectfood.backend.dto.UserProfileDTO;
+import com.connectfood.backend.model.Role;
 import com.connectfood.backend.service.ProfileService;
-import com.connectfood.backend.security.JwtUtil;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import com.connectfood.backend.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -19,33 +20,14 @@ public class ProfileController {
     @Autowired
     private ProfileService profileService;
 
-    @Autowired
-    private JwtUtil jwtUtil;
-
-    // Helper method to extract email and role from JWT token
-    private Map<String, String> getEmailAndRoleFromToken(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) return null;
-        String token = authHeader.substring(7);
-        try {
-            Jws<Claims> jws = jwtUtil.validateToken(token);
-            Claims claims = jws.getBody();
-            String email = claims.getSubject();
-            String role = claims.get("role", String.class);
-            return Map.of("email", email, "role", role);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     @GetMapping
-    public ResponseEntity<?> getUserProfile(@RequestHeader("Authorization") String authHeader) {
-        Map<String, String> userInfo = getEmailAndRoleFromToken(authHeader);
-        if (userInfo == null) {
+    public ResponseEntity<?> getUserProfile(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
             return ResponseEntity.status(401).body("Invalid or missing token");
         }
 
-        String email = userInfo.get("email");
-        String role = userInfo.get("role");
+        String email = user.email();
+        String role = user.role();
 
         UserProfileDTO profile = profileService.getUserProfile(email, role);
         if (profile == null) {
@@ -59,39 +41,37 @@ public class ProfileController {
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<?> getUserStats(@RequestHeader("Authorization") String authHeader) {
-        Map<String, String> userInfo = getEmailAndRoleFromToken(authHeader);
-        if (userInfo == null) {
+    public ResponseEntity<?> getUserStats(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
             return ResponseEntity.status(401).body("Invalid or missing token");
         }
 
-        String email = userInfo.get("email");
-        String role = userInfo.get("role");
+        String email = user.email();
+        String role = user.role();
 
-        UserProfileDTO profile = profileService.getUserProfile(email, role);
-        if (profile == null) {
+        // Materialized counters: no profile assembly, just a primary-key read
+        DonationStats userStats = profileService.getUserStats(email, role);
+        if (userStats == null) {
             return ResponseEntity.notFound().build();
         }
 
-        // Return only statistics
         Map<String, Object> stats = Map.of(
-            "totalDonations", profile.getTotalDonations(),
-            "totalItems", profile.getTotalItems(),
-            "activeDonations", profile.getActiveDonations(),
-            "role", profile.getRole()
+            "totalDonations", userStats.getTotalDonations(),
+            "totalItems", userStats.getTotalItems(),
+            "activeDonations", userStats.getActiveDonations(),
+            "role", "donor".equals(role) ? Role.DONOR : Role.RECIPIENT
         );
 
         return ResponseEntity.ok(stats);
     }
 
     @PutMapping
-    public ResponseEntity<?> updateProfile(@RequestHeader("Authorization") String authHeader, @RequestBody Map<String, Object> updates) {
-        Map<String, String> userInfo = getEmailAndRoleFromToken(authHeader);
-        if (userInfo == null) {
+    public ResponseEntity<?> updateProfile(@AuthenticationPrincipal AuthenticatedUser user, @RequestBody Map<String, Object> updates) {
+        if (user == null) {
             return ResponseEntity.status(401).body("Invalid or missing token");
         }
-        String email = userInfo.get("email");
-        String role = userInfo.get("role");
+        String email = user.email();
+        String role = user.role();
         boolean profileComplete = false;
         if ("donor".equals(role)) {
             profileComplete = profileService.updateDonorProfile(email, updates);
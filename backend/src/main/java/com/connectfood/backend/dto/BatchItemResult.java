@@ -0,0 +1,16 @@
+package com.connectfood.backend.dto;
+
+/**
+ * Outcome of one item in a batch request. index is the item's position in the request, so
+ * failures can be matched up even when the item never got a donation id.
+ */
+public record BatchItemResult(int index, String donationId, boolean success, String error) {
+
+    public static BatchItemResult succeeded(int index, String donationId) {
+        return new BatchItemResult(index, donationId, true, null);
+    }
+
+    public static BatchItemResult failed(int index, String donationId, String error) {
+        return new BatchItemResult(index, donationId, false, error);
+    }
+}
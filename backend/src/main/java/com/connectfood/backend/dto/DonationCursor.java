@@ -0,0 +1,51 @@
+package com.connectfood.backend.dto;
+
+import com.connectfood.backend.model.Donation;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset position in a (createdAt desc, id desc) ordered donation listing.
+ * Clients get it back in the X-Next-Cursor header and pass it as ?cursor= for the next page.
+ * Legacy documents without createdAt sort last; their cursors carry a null createdAt.
+ */
+@Getter
+public class DonationCursor {
+
+    private final Date createdAt;
+    private final String id;
+
+    public DonationCursor(Date createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static DonationCursor after(Donation donation) {
+        return new DonationCursor(donation.getCreatedAt(), donation.getId());
+    }
+
+    private static final String NO_TIMESTAMP = "-";
+
+    public String encode() {
+        String raw = (createdAt == null ? NO_TIMESTAMP : String.valueOf(createdAt.getTime())) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a missing cursor, throws IllegalArgumentException for a malformed one
+    public static DonationCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(':');
+        if (separator <= 0 || separator == raw.length() - 1) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        String timestamp = raw.substring(0, separator);
+        Date createdAt = timestamp.equals(NO_TIMESTAMP) ? null : new Date(Long.parseLong(timestamp));
+        return new DonationCursor(createdAt, raw.substring(separator + 1));
+    }
+}
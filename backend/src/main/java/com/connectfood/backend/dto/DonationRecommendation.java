@@ -0,0 +1,10 @@
+package com.connectfood.backend.dto;
+
+import com.connectfood.backend.model.Donation;
+
+/**
+ * A live donation suggested to a recipient. score is in [0, 1], higher is a better match;
+ * distanceKm is null when either side has no known location.
+ */
+public record DonationRecommendation(Donation donation, double score, Double distanceKm) {
+}
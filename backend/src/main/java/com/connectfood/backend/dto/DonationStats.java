@@ -0,0 +1,10 @@
+package com.connectfood.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class DonationStats {
+    private long totalDonations;
+    private long totalItems;
+    private long activeDonations;
+}
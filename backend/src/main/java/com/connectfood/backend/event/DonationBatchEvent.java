@@ -0,0 +1,12 @@
+package com.connectfood.backend.event;
+
+import com.connectfood.backend.model.Donation;
+
+import java.util.List;
+
+/**
+ * The same state change applied to several donations by one request, published once so listeners
+ * can apply the whole batch in a single pass instead of once per donation.
+ */
+public record DonationBatchEvent(DonationEvent.Type type, List<Donation> donations) {
+}
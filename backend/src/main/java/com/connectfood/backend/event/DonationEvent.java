@@ -0,0 +1,14 @@
+package com.connectfood.backend.event;
+
+import com.connectfood.backend.model.Donation;
+
+/**
+ * In-process notification of a donation state change, published through Spring's
+ * ApplicationEventPublisher after the change has been written.
+ */
+public record DonationEvent(Type type, Donation donation) {
+
+    public enum Type {
+        CREATED, INITIATED, COLLECTED, EXPIRED, RELEASED, CANCELLED
+    }
+}
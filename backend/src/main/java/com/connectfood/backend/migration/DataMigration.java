@@ -0,0 +1,15 @@
+package com.connectfood.backend.migration;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * A one-time, idempotent data fix applied at startup by {@link DataMigrationRunner}.
+ * Ids are recorded once applied, so each migration runs at most once per database.
+ */
+public interface DataMigration {
+
+    // Unique, sortable id, e.g. "001-donation-location"
+    String id();
+
+    void apply(MongoTemplate mongoTemplate);
+}
@@ -0,0 +1,56 @@
+package com.connectfood.backend.migration;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+@Component
+@Order(2)
+public class DataMigrationRunner implements ApplicationRunner {
+
+    static final String COLLECTION = "data_migrations";
+
+    private static final Logger log = LoggerFactory.getLogger(DataMigrationRunner.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private List<DataMigration> migrations;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<DataMigration> ordered = migrations.stream()
+                .sorted(Comparator.comparing(DataMigration::id))
+                .toList();
+
+        for (DataMigration migration : ordered) {
+            try {
+                Query applied = new Query(Criteria.where("_id").is(migration.id()));
+                if (mongoTemplate.exists(applied, COLLECTION)) {
+                    continue;
+                }
+                long start = System.currentTimeMillis();
+                migration.apply(mongoTemplate);
+                mongoTemplate.insert(new Document("_id", migration.id()).append("appliedAt", new Date()), COLLECTION);
+                log.info("Applied data migration {} in {} ms", migration.id(), System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                // Leave it unrecorded so the next startup retries
+                log.warn("Data migration {} failed: {}", migration.id(), e.getMessage());
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.connectfood.backend.migration;
+
+import com.connectfood.backend.model.Donation;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives existing donations an explicit expired=false, which the partial live index and the live
+ * queries match on, then drops the full live index it replaces. Donations already past their
+ * expiryDate are picked up by the next lifecycle sweep.
+ */
+@Component
+public class DonationExpiryBackfill implements DataMigration {
+
+    private static final String REPLACED_LIVE_INDEX = "live_city_district_qty";
+
+    @Override
+    public String id() {
+        return "005-donation-expiry-flag";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        mongoTemplate.updateMulti(new Query(Criteria.where("expired").exists(false)),
+                new Update().set("expired", false), Donation.class);
+
+        IndexOperations indexOps = mongoTemplate.indexOps(Donation.class);
+        if (indexOps.getIndexInfo().stream().map(IndexInfo::getName).anyMatch(REPLACED_LIVE_INDEX::equals)) {
+            indexOps.dropIndex(REPLACED_LIVE_INDEX);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.connectfood.backend.migration;
+
+import com.connectfood.backend.model.Donation;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Derives the GeoJSON location of donations created before the 2dsphere search existed,
+ * server-side in a single pipeline update.
+ */
+@Component
+public class DonationLocationBackfill implements DataMigration {
+
+    @Override
+    public String id() {
+        return "001-donation-location";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        Query missing = new Query(Criteria.where("location").exists(false)
+                .and("latitude").type(1)
+                .and("longitude").type(1));
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("location").toValue(new Document("type", "Point")
+                        .append("coordinates", List.of("$longitude", "$latitude")));
+        mongoTemplate.updateMulti(missing, update, Donation.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.connectfood.backend.migration;
+
+import com.connectfood.backend.model.Donation;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Populates the normalized cityKey/districtKey of existing donations so the live search
+ * can match them through the available_city_district_qty index, the (cityKey, districtKey,
+ * quantity) index filtered to status AVAILABLE.
+ */
+@Component
+public class DonationSearchKeyBackfill implements DataMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public String id() {
+        return "002-donation-search-keys";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        rekey(mongoTemplate, new Query(new Criteria().orOperator(
+                Criteria.where("cityKey").exists(false),
+                Criteria.where("districtKey").exists(false))));
+    }
+
+    // Keys are computed with Donation.normalizeKey rather than {$toLower: {$trim}}: $toLower only
+    // folds ASCII, so a server-side pipeline would disagree with the keys of new donations and queries
+    static void rekey(MongoTemplate mongoTemplate, Query query) {
+        query.fields().include("id").include("city").include("district");
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<Donation> donations = mongoTemplate.stream(query, Donation.class)) {
+            for (Donation donation : (Iterable<Donation>) donations::iterator) {
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Donation.class);
+                }
+                bulk.updateOne(new Query(Criteria.where("id").is(donation.getId())), new Update()
+                        .set("cityKey", Donation.normalizeKey(donation.getCity()))
+                        .set("districtKey", Donation.normalizeKey(donation.getDistrict())));
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+    }
+}
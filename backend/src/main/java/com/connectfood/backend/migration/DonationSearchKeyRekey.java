@@ -0,0 +1,28 @@
+package com.connectfood.backend.migration;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the search keys of donations backfilled by the first, server-side version of
+ * {@link DonationSearchKeyBackfill}, whose $toLower left non-ASCII letters (e.g. "MÜNCHEN") unfolded.
+ */
+@Component
+public class DonationSearchKeyRekey implements DataMigration {
+
+    private static final String NON_ASCII = "[^\\x00-\\x7F]";
+
+    @Override
+    public String id() {
+        return "007-donation-search-keys-unicode";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        DonationSearchKeyBackfill.rekey(mongoTemplate, new Query(new Criteria().orOperator(
+                Criteria.where("city").regex(NON_ASCII),
+                Criteria.where("district").regex(NON_ASCII))));
+    }
+}
@@ -0,0 +1,56 @@
+package com.connectfood.backend.migration;
+
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Folds the collected / collectionInitiated / expired flags of existing donations into the single
+ * status field, removes the flags, and drops the indexes that were keyed or filtered on them.
+ * Collected wins over the other flags, since collecting never cleared collectionInitiated.
+ */
+@Component
+public class DonationStatusBackfill implements DataMigration {
+
+    private static final Set<String> REPLACED_INDEXES = Set.of(
+            "live_available_city_district_qty", "expiry_sweep", "reservation_sweep",
+            "collected_created", "initiated_by_stats");
+
+    @Override
+    public String id() {
+        return "006-donation-status";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        Document status = new Document("$switch", new Document("branches", List.of(
+                branch("$collected", DonationStatus.COLLECTED),
+                branch("$expired", DonationStatus.EXPIRED),
+                branch("$collectionInitiated", DonationStatus.RESERVED)))
+                .append("default", DonationStatus.AVAILABLE.name()));
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("status").toValue(status)
+                .unset("collected", "collectionInitiated", "expired");
+        mongoTemplate.updateMulti(new Query(Criteria.where("status").exists(false)), update, Donation.class);
+
+        IndexOperations indexOps = mongoTemplate.indexOps(Donation.class);
+        indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(REPLACED_INDEXES::contains)
+                .forEach(indexOps::dropIndex);
+    }
+
+    private static Document branch(String flag, DonationStatus status) {
+        return new Document("case", new Document("$eq", List.of(flag, true))).append("then", status.name());
+    }
+}
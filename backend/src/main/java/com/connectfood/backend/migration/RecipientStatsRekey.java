@@ -0,0 +1,57 @@
+package com.connectfood.backend.migration;
+
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.Recipient;
+import com.connectfood.backend.model.UserStats;
+import com.connectfood.backend.service.UserStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Moves recipient stats from organization name to account email. Reserved and collected donations
+ * get the email of the recipient whose organization name they recorded (the first one, should two
+ * recipients share a name), the name-keyed stats documents and their index are dropped, and the
+ * stats are rebuilt under the new keys.
+ */
+@Component
+public class RecipientStatsRekey implements DataMigration {
+
+    private static final String REPLACED_INDEX = "initiated_by_status";
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Override
+    public String id() {
+        return "009-recipient-stats-by-email";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        Query recipients = new Query(Criteria.where("organizationName").ne(null));
+        recipients.fields().include("email").include("organizationName");
+        try (Stream<Recipient> stream = mongoTemplate.stream(recipients, Recipient.class)) {
+            stream.forEach(recipient -> mongoTemplate.updateMulti(
+                    new Query(Criteria.where("initiatedBy").is(recipient.getOrganizationName())
+                            .and("initiatedByEmail").exists(false)),
+                    new Update().set("initiatedByEmail", recipient.getEmail()),
+                    Donation.class));
+        }
+
+        IndexOperations indexOps = mongoTemplate.indexOps(Donation.class);
+        if (indexOps.getIndexInfo().stream().map(IndexInfo::getName).anyMatch(REPLACED_INDEX::equals)) {
+            indexOps.dropIndex(REPLACED_INDEX);
+        }
+
+        mongoTemplate.remove(new Query(Criteria.where("_id").regex("^organization:")), UserStats.class);
+        userStatsService.reconcile();
+    }
+}
@@ -0,0 +1,48 @@
+package com.connectfood.backend.migration;
+
+import com.connectfood.backend.model.Donor;
+import com.connectfood.backend.model.Recipient;
+import com.connectfood.backend.model.Role;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Seeds user_accounts from existing donors and recipients. Emails the old login flow left in both
+ * collections keep whichever registration is older, which is the role they were first let in as.
+ */
+@Component
+public class UserAccountBackfill implements DataMigration {
+
+    @Override
+    public String id() {
+        return "004-user-accounts";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        MergeOperation intoAccounts = Aggregation.merge()
+                .intoCollection("user_accounts")
+                .on("_id")
+                .whenMatched(MergeOperation.WhenDocumentsMatch.updateWith(Aggregation.newAggregation(
+                        context -> new Document("$replaceWith", new Document("$cond", List.of(
+                                new Document("$lt", List.of("$$new.createdAt", "$createdAt")), "$$new", "$$ROOT"))))))
+                .whenDocumentsDontMatch(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                .build();
+
+        for (Class<?> type : List.of(Donor.class, Recipient.class)) {
+            Role role = type == Donor.class ? Role.DONOR : Role.RECIPIENT;
+            mongoTemplate.aggregate(Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("email").ne(null)),
+                    context -> new Document("$project", new Document("_id", "$email")
+                            .append("role", new Document("$literal", role.name()))
+                            .append("createdAt", 1)),
+                    intoAccounts), type, Document.class);
+        }
+    }
+}
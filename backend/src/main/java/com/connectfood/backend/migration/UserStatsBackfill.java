@@ -0,0 +1,27 @@
+package com.connectfood.backend.migration;
+
+import com.connectfood.backend.service.UserStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds the materialized user stats from existing donations; afterwards they are kept current
+ * incrementally and by the scheduled reconcile.
+ */
+@Component
+public class UserStatsBackfill implements DataMigration {
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Override
+    public String id() {
+        return "003-user-stats";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        userStatsService.reconcile();
+    }
+}
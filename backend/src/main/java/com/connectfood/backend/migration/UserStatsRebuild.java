@@ -0,0 +1,28 @@
+package com.connectfood.backend.migration;
+
+import com.connectfood.backend.service.UserStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-seeds the user stats once {@link DonationStatusBackfill} has added the status field. On a
+ * database that predates it, {@link UserStatsBackfill} ran first and, grouping on a missing status,
+ * stored zeroed counters that getStats would otherwise trust until the nightly reconcile.
+ */
+@Component
+public class UserStatsRebuild implements DataMigration {
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Override
+    public String id() {
+        return "008-user-stats-by-status";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        userStatsService.reconcile();
+    }
+}
@@ -1,15 +1,31 @@
 package com.connectfood.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Data;
 
 import java.util.Date;
+import java.util.Locale;
 
 @Data
 @Document(collection = "donations")
+// Partial: only live donations are indexed, so the index stays as small as the live set
+@CompoundIndex(name = "available_city_district_qty", def = "{'cityKey': 1, 'districtKey': 1, 'quantity': 1}",
+        partialFilter = "{'status': 'AVAILABLE'}")
+@CompoundIndex(name = "available_expiry", def = "{'expiryDate': 1}", partialFilter = "{'status': 'AVAILABLE'}")
+@CompoundIndex(name = "reserved_initiated_at", def = "{'initiatedAt': 1}", partialFilter = "{'status': 'RESERVED'}")
+@CompoundIndex(name = "donor_created", def = "{'donorEmail': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "status_created", def = "{'status': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "recipient_status", def = "{'initiatedByEmail': 1, 'status': 1, 'quantity': 1}")
 public class Donation {
     @Id
     private String id;
@@ -26,30 +42,89 @@ public class Donation {
     private String city;
     private String district;
     private String address;
+
+    // Normalized (trimmed, lower-cased) city/district used by the indexed live search
+    @JsonIgnore
+    private String cityKey;
+    @JsonIgnore
+    private String districtKey;
+
     private Double latitude;
     private Double longitude;
+
+    // GeoJSON point derived from latitude/longitude, backs the nearest-first search
+    @JsonIgnore
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location;
+
     private Date expiryDate;
     private String specialInstructions;
     
-    // Collection status fields
-    private boolean collected = false;
-    private boolean collectionInitiated = false;
+    // Only ever changed by a conditional update that matches the current status
+    private DonationStatus status = DonationStatus.AVAILABLE;
+
+    // Collection details
     private String initiatedBy;
+    // The reserving recipient's account; stats are keyed on it since organization names can be edited
+    @JsonIgnore
+    private String initiatedByEmail;
     private Date initiatedAt;
     private String collectedBy;
     private Date collectedAt;
+
+    // Set by the lifecycle sweep once expiryDate passes without the donation being reserved
+    private Date expiredAt;
+    private Date cancelledAt;
+
+    // Last time a reservation timed out and the donation went back on offer
+    private Date releasedAt;
+
+    // Written by each lifecycle sweep batch so it can read back exactly the donations it changed
+    @JsonIgnore
+    private String sweepToken;
     private Date createdAt = new Date();
 
     // Constructors, Getters, Setters
     public Donation() {}
 
-    public Donation(String donorEmail, String city, String district, String address, int quantity, boolean collected) {
+    public Donation(String donorEmail, String city, String district, String address, int quantity) {
         this.donorEmail = donorEmail;
         this.city = city;
         this.district = district;
         this.address = address;
         this.quantity = quantity;
-        this.collected = collected;
     }
     // getters/setters omitted
+
+    // Read-only views of status kept in the JSON for existing clients; never stored
+    @Transient
+    public boolean isCollected() {
+        return status == DonationStatus.COLLECTED;
+    }
+
+    @Transient
+    public boolean isCollectionInitiated() {
+        return status == DonationStatus.RESERVED || status == DonationStatus.COLLECTED;
+    }
+
+    @Transient
+    public boolean isExpired() {
+        return status == DonationStatus.EXPIRED;
+    }
+
+    // Keeps the indexed search keys and GeoJSON point in sync with the user-entered fields
+    public void refreshDerivedFields() {
+        this.cityKey = normalizeKey(city);
+        this.districtKey = normalizeKey(district);
+        if (latitude != null && longitude != null) {
+            this.location = new GeoJsonPoint(longitude, latitude);
+        } else {
+            this.location = null;
+        }
+    }
+
+    // Unicode-aware, unlike Mongo's ASCII-only $toLower, so keys are only ever computed here (backfills included)
+    public static String normalizeKey(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
 }
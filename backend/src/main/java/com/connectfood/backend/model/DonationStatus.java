@@ -0,0 +1,49 @@
+package com.connectfood.backend.model;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Where a donation is in its lifecycle, stored as a single string field. Every change is a
+ * conditional update whose query pins the current status, so only the moves in
+ * {@link #canMoveTo} can ever be written and concurrent attempts race on one field.
+ */
+public enum DonationStatus {
+    AVAILABLE, RESERVED, COLLECTED, EXPIRED, CANCELLED;
+
+    // COLLECTED, EXPIRED and CANCELLED are terminal
+    public boolean canMoveTo(DonationStatus next) {
+        return switch (this) {
+            case AVAILABLE -> next == RESERVED || next == EXPIRED || next == CANCELLED;
+            case RESERVED -> next == COLLECTED || next == AVAILABLE || next == CANCELLED;
+            case COLLECTED, EXPIRED, CANCELLED -> false;
+        };
+    }
+
+    // Statuses a donation may be in for a move to next to be allowed
+    public static Set<DonationStatus> allowedBefore(DonationStatus next) {
+        Set<DonationStatus> from = EnumSet.noneOf(DonationStatus.class);
+        Arrays.stream(values()).filter(status -> status.canMoveTo(next)).forEach(from::add);
+        return from;
+    }
+
+    // Fails fast on a transition the table does not allow, before any query is sent
+    public static DonationStatus checkTransition(DonationStatus from, DonationStatus to) {
+        if (!from.canMoveTo(to)) {
+            throw new IllegalStateException("Donation cannot move from " + from + " to " + to);
+        }
+        return to;
+    }
+
+    // Aggregation term that is 1 for documents in any of the given statuses and 0 otherwise, for
+    // counting by status inside a $group; a donor's donation is active while available or reserved
+    public static AggregationExpression countWhen(DonationStatus... statuses) {
+        List<String> names = Arrays.stream(statuses).map(DonationStatus::name).toList();
+        return context -> new Document("$cond", List.of(new Document("$in", List.of("$status", names)), 1, 0));
+    }
+}
@@ -1,6 +1,7 @@
 package com.connectfood.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Data;
@@ -11,6 +12,7 @@ import java.util.Date;
 public class Donor {
     @Id
     private String id;
+    @Indexed(unique = true)
     private String email;
     private String name;
     private Role role = Role.DONOR;
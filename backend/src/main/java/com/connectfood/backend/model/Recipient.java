@@ -2,6 +2,7 @@ package com.connectfood.backend.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -11,6 +12,7 @@ import java.util.Date;
 public class Recipient {
     @Id
     private String id;
+    @Indexed(unique = true)
     private String email;
     private String name;
     private String organizationName;
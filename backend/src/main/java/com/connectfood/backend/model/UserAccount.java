@@ -0,0 +1,20 @@
+package com.connectfood.backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One document per registered email, keyed by the email itself. Claiming it is how a login
+ * decides the account's role, so an email can only ever be a donor or a recipient.
+ */
+@Data
+@Document(collection = "user_accounts")
+public class UserAccount {
+    @Id
+    private String email;
+    private Role role;
+    private Date createdAt;
+}
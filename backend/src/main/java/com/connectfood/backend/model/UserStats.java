@@ -0,0 +1,33 @@
+package com.connectfood.backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Materialized profile statistics, kept current with $inc on every donation state change and
+ * periodically rebuilt from the donations collection. Both donors and recipients are keyed by
+ * account email, which unlike an organization name cannot be edited from the profile.
+ */
+@Data
+@Document(collection = "user_stats")
+public class UserStats {
+    @Id
+    private String id;
+    private long totalDonations; // For donors: created, for recipients: collected
+    private long totalItems;
+    private long activeDonations; // For donors: not yet collected, for recipients: reserved
+    private Date updatedAt;
+    // Stamped by each reconcile run on the documents it rebuilt; the rest get zeroed
+    private String reconcileToken;
+
+    public static String donorId(String email) {
+        return "donor:" + email;
+    }
+
+    public static String recipientId(String email) {
+        return "recipient:" + email;
+    }
+}
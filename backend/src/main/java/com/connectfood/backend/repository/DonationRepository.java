@@ -1,19 +1,18 @@
 package com.connectfood.backend.repository;
 
 import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Point;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
-public interface DonationRepository extends MongoRepository<Donation, String> {
+public interface DonationRepository extends MongoRepository<Donation, String>, DonationRepositoryCustom {
     List<Donation> findByDonorEmail(String donorEmail);
-    List<Donation> findByCollectedFalseAndCityContainingIgnoreCaseAndDistrictContainingIgnoreCaseAndQuantityGreaterThanEqual(
-        String city, String district, int minQuantity);
-    List<Donation> findByCollectedTrue();
-    
-    // Count methods for statistics
-    long countByDonorEmail(String donorEmail);
-    long countByDonorEmailAndCollectedFalse(String donorEmail);
-    long countByCollectedTrue();
-    long countByCollectedFalse();
+
+    // Nearest-first search ($nearSphere) served by the 2dsphere index on location, results ordered by distance
+    List<Donation> findByStatusAndQuantityGreaterThanEqualAndLocationNear(
+        DonationStatus status, int minQuantity, Point location, Distance maxDistance, Pageable pageable);
 }
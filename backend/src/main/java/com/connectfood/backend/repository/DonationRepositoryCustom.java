@@ -0,0 +1,36 @@
+package com.connectfood.backend.repository;
+
+import com.connectfood.backend.dto.DonationCursor;
+import com.connectfood.backend.dto.DonationStats;
+import com.connectfood.backend.model.Donation;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Donation listings ordered newest first by (createdAt, id). The page methods return at most
+ * {@code limit} donations after the given cursor (null for the first page); the stream methods
+ * walk the same ordering through a server-side cursor and must be closed by the caller.
+ */
+public interface DonationRepositoryCustom {
+
+    // Live (uncollected) donations whose normalized city/district start with the given filters;
+    // blank filters are left out of the query
+    List<Donation> findLivePage(String city, String district, int minQuantity, DonationCursor after, int limit);
+
+    Stream<Donation> streamLive(String city, String district, int minQuantity);
+
+    List<Donation> findDonorPage(String donorEmail, DonationCursor after, int limit);
+
+    Stream<Donation> streamDonor(String donorEmail);
+
+    List<Donation> findCollectedPage(DonationCursor after, int limit);
+
+    Stream<Donation> streamCollected();
+
+    // Created / total items / still uncollected for one donor, in a single $group round trip
+    DonationStats donorStats(String donorEmail);
+
+    // Collected / items collected / reserved but not yet collected by one recipient
+    DonationStats recipientStats(String recipientEmail);
+}
@@ -0,0 +1,131 @@
+package com.connectfood.backend.repository;
+
+import com.connectfood.backend.dto.DonationCursor;
+import com.connectfood.backend.dto.DonationStats;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class DonationRepositoryImpl implements DonationRepositoryCustom {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Donation> findLivePage(String city, String district, int minQuantity, DonationCursor after, int limit) {
+        return page(liveCriteria(city, district, minQuantity), after, limit);
+    }
+
+    @Override
+    public Stream<Donation> streamLive(String city, String district, int minQuantity) {
+        return stream(liveCriteria(city, district, minQuantity));
+    }
+
+    @Override
+    public List<Donation> findDonorPage(String donorEmail, DonationCursor after, int limit) {
+        return page(Criteria.where("donorEmail").is(donorEmail), after, limit);
+    }
+
+    @Override
+    public Stream<Donation> streamDonor(String donorEmail) {
+        return stream(Criteria.where("donorEmail").is(donorEmail));
+    }
+
+    @Override
+    public List<Donation> findCollectedPage(DonationCursor after, int limit) {
+        return page(Criteria.where("status").is(DonationStatus.COLLECTED), after, limit);
+    }
+
+    @Override
+    public Stream<Donation> streamCollected() {
+        return stream(Criteria.where("status").is(DonationStatus.COLLECTED));
+    }
+
+    @Override
+    public DonationStats donorStats(String donorEmail) {
+        return stats(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("donorEmail").is(donorEmail)),
+                Aggregation.group()
+                        .count().as("totalDonations")
+                        .sum("quantity").as("totalItems")
+                        .sum(DonationStatus.countWhen(DonationStatus.AVAILABLE, DonationStatus.RESERVED)).as("activeDonations")));
+    }
+
+    @Override
+    public DonationStats recipientStats(String recipientEmail) {
+        // Collecting requires holding the reservation, so initiatedByEmail covers both collected and active
+        return stats(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("initiatedByEmail").is(recipientEmail)),
+                Aggregation.group()
+                        .sum(DonationStatus.countWhen(DonationStatus.COLLECTED)).as("totalDonations")
+                        .sum(ConditionalOperators.when(Criteria.where("status").is(DonationStatus.COLLECTED.name()))
+                                .thenValueOf("quantity").otherwise(0)).as("totalItems")
+                        .sum(DonationStatus.countWhen(DonationStatus.RESERVED)).as("activeDonations")));
+    }
+
+    private DonationStats stats(Aggregation aggregation) {
+        DonationStats stats = mongoTemplate.aggregate(aggregation, Donation.class, DonationStats.class)
+                .getUniqueMappedResult();
+        return stats != null ? stats : new DonationStats();
+    }
+
+
+    private List<Donation> page(Criteria filter, DonationCursor after, int limit) {
+        Criteria criteria = filter;
+        if (after != null && after.getCreatedAt() == null) {
+            // Already among the undated legacy documents, which sort last
+            criteria = new Criteria().andOperator(filter, Criteria.where("createdAt").is(null).and("id").lt(after.getId()));
+        } else if (after != null) {
+            // Keyset predicate: strictly older, same timestamp with a smaller id, or undated ($lt never matches null)
+            criteria = new Criteria().andOperator(filter, new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(after.getCreatedAt()),
+                    Criteria.where("createdAt").is(after.getCreatedAt()).and("id").lt(after.getId()),
+                    Criteria.where("createdAt").is(null)));
+        }
+        Query query = new Query(criteria).with(NEWEST_FIRST).limit(limit);
+        return mongoTemplate.find(query, Donation.class);
+    }
+
+    private Stream<Donation> stream(Criteria filter) {
+        Query query = new Query(filter).with(NEWEST_FIRST).cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, Donation.class);
+    }
+
+    private static Criteria liveCriteria(String city, String district, int minQuantity) {
+        Criteria criteria = Criteria.where("status").is(DonationStatus.AVAILABLE);
+        addPrefixMatch(criteria, "cityKey", city);
+        addPrefixMatch(criteria, "districtKey", district);
+        return criteria.and("quantity").gte(minQuantity);
+    }
+
+    // Anchored, case-sensitive regex on the lower-cased key so Mongo can turn it into index bounds
+    private static void addPrefixMatch(Criteria criteria, String key, String value) {
+        String normalized = Donation.normalizeKey(value);
+        if (!normalized.isEmpty()) {
+            criteria.and(key).regex("^" + escapeRegex(normalized));
+        }
+    }
+
+    static String escapeRegex(String literal) {
+        StringBuilder escaped = new StringBuilder(literal.length() + 8);
+        for (char c : literal.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
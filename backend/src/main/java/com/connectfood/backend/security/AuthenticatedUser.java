@@ -0,0 +1,9 @@
+package com.connectfood.backend.security;
+
+/**
+ * Principal placed in the SecurityContext by {@link JwtAuthenticationFilter} once the token has
+ * been verified. Controllers receive it with {@code @AuthenticationPrincipal} instead of
+ * re-parsing the Authorization header.
+ */
+public record AuthenticatedUser(String email, String role) {
+}
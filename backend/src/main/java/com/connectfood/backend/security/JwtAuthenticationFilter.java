@@ -1,8 +1,6 @@
 package com.connectfood.backend.security;
 
-import com.connectfood.backend.config.JwtConfig;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.security.SecurityException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,10 +18,10 @@ import java.util.List;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtConfig jwtConfig;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public JwtAuthenticationFilter(JwtConfig jwtConfig) {
-        this.jwtConfig = jwtConfig;
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -39,30 +37,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        final String authHeader = request.getHeader("Authorization");
+        final String authHeader = request.getHeader(SecurityConstants.AUTH_HEADER);
 
-        String email = null;
-        String token = null;
-        String role = null;
+        AuthenticatedUser user = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
+        if (authHeader != null && authHeader.startsWith(SecurityConstants.TOKEN_PREFIX)) {
+            String token = authHeader.substring(SecurityConstants.TOKEN_PREFIX.length());
             try {
-                email = jwtConfig.getEmailFromToken(token);
-                role = jwtConfig.getRoleFromToken(token);
-            } catch (IllegalArgumentException | ExpiredJwtException | SecurityException e) {
+                // The only token check for the request (and skipped for recently verified tokens);
+                // controllers get the principal from the context
+                user = verifiedTokenCache.resolve(token);
+            } catch (JwtException | IllegalArgumentException e) {
                 logger.error("JWT Token validation failed: " + e.getMessage());
             }
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (user != null && user.email() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             List<GrantedAuthority> authorities = Collections.emptyList();
-            if (role != null) {
-                authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+            if (user.role() != null) {
+                authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.role().toUpperCase()));
             }
 
             UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(email, null, authorities);
+                    new UsernamePasswordAuthenticationToken(user, null, authorities);
 
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -20,9 +20,13 @@ public class JwtUtil {
 
     private Key key;
 
+    // Immutable and thread-safe, so built once instead of per token
+    private JwtParser parser;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateToken(String email, String role) {
@@ -36,6 +40,15 @@ public class JwtUtil {
     }
 
     public Jws<Claims> validateToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
+    }
+
+    // Verifies signature and expiry once and extracts everything the request needs
+    public AuthenticatedUser parsePrincipal(String token) {
+        return principalOf(validateToken(token).getBody());
+    }
+
+    public AuthenticatedUser principalOf(Claims claims) {
+        return new AuthenticatedUser(claims.getSubject(), claims.get("role", String.class));
     }
 }
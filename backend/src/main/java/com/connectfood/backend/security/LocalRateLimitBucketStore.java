@@ -0,0 +1,28 @@
+package com.connectfood.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bucket;
+
+import java.time.Duration;
+
+/**
+ * In-memory buckets in a bounded Caffeine map. A bucket idle for longer than the longest refill
+ * period would be full again anyway, so evicting it after that long never loosens a limit.
+ */
+public class LocalRateLimitBucketStore implements RateLimitBucketStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalRateLimitBucketStore(long maxKeys, Duration idleEviction) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleEviction)
+                .build();
+    }
+
+    @Override
+    public Bucket resolve(String key, RateLimitPolicy policy) {
+        return buckets.get(key, k -> Bucket.builder().addLimit(policy.bandwidth()).build());
+    }
+}
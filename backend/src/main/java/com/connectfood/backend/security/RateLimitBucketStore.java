@@ -0,0 +1,13 @@
+package com.connectfood.backend.security;
+
+import io.github.bucket4j.Bucket;
+
+/**
+ * Where rate-limit buckets live. The default keeps them in process memory; a shared store (e.g. a
+ * Bucket4j ProxyManager over Redis or JCache) can be plugged in to enforce limits across nodes,
+ * since its bucket proxies implement the same {@link Bucket} interface.
+ */
+public interface RateLimitBucketStore {
+
+    Bucket resolve(String key, RateLimitPolicy policy);
+}
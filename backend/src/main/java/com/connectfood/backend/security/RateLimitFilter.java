@@ -0,0 +1,87 @@
+package com.connectfood.backend.security;
+
+import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-caller rate limiting, placed after {@link JwtAuthenticationFilter} so authenticated requests
+ * are keyed by the principal's email. Login endpoints and anonymous callers are keyed by client IP.
+ * Each request class (auth, write, read) has its own budget; rejected requests get a 429 before
+ * reaching any controller or Mongo.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private final RateLimitBucketStore bucketStore;
+    private final RateLimitPolicy authPolicy;
+    private final RateLimitPolicy writePolicy;
+    private final RateLimitPolicy readPolicy;
+
+    public RateLimitFilter(RateLimitBucketStore bucketStore,
+                           RateLimitPolicy authPolicy,
+                           RateLimitPolicy writePolicy,
+                           RateLimitPolicy readPolicy) {
+        this.bucketStore = bucketStore;
+        this.authPolicy = authPolicy;
+        this.writePolicy = writePolicy;
+        this.readPolicy = readPolicy;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // CORS preflights carry no credentials and are answered before reaching a controller
+        if ("OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitPolicy policy = policyFor(request);
+        String key = policy.name() + ":" + callerKey(request);
+        ConsumptionProbe probe = bucketStore.resolve(key, policy).tryConsumeAndReturnRemaining(1);
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(policy.capacity()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(probe.getRemainingTokens()));
+
+        if (!probe.isConsumed()) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()));
+            response.setHeader(RESET_HEADER, String.valueOf(retryAfterSeconds));
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setStatus(429);
+            response.getWriter().write("Too many requests");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private RateLimitPolicy policyFor(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/api/auth/")) {
+            return authPolicy;
+        }
+        return "GET".equals(request.getMethod()) ? readPolicy : writePolicy;
+    }
+
+    private static String callerKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.email();
+        }
+        return request.getRemoteAddr();
+    }
+}
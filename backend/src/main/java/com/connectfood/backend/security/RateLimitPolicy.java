@@ -0,0 +1,16 @@
+package com.connectfood.backend.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Refill;
+
+import java.time.Duration;
+
+/**
+ * A named request budget: {@code capacity} requests per {@code period}, refilled greedily.
+ */
+public record RateLimitPolicy(String name, long capacity, Duration period) {
+
+    public Bandwidth bandwidth() {
+        return Bandwidth.classic(capacity, Refill.greedy(capacity, period));
+    }
+}
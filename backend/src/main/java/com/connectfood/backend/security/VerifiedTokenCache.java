@@ -0,0 +1,86 @@
+package com.connectfood.backend.security;
+
+import com.connectfood.backend.util.TokenHash;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already-verified bearer tokens in front of {@link JwtUtil}. Clients repeat the
+ * same token for its whole lifetime, so after the first request the base64 decode, JSON parse and
+ * HMAC check are replaced by a SHA-256 of the token and a map lookup. Entries are keyed by that
+ * hash (raw tokens are never retained) and expire no later than the token's own exp claim.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final boolean enabled;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.cache.maxSize:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens");
+        }
+    }
+
+    // Same contract as JwtUtil.parsePrincipal: throws JwtException for invalid or expired tokens
+    public AuthenticatedUser resolve(String token) {
+        if (!enabled) {
+            return jwtUtil.parsePrincipal(token);
+        }
+        String key = TokenHash.sha256(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return cached.user();
+        }
+
+        Claims claims = jwtUtil.validateToken(token).getBody();
+        AuthenticatedUser user = jwtUtil.principalOf(claims);
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            cache.put(key, new VerifiedToken(user, expiration.getTime()));
+        }
+        return user;
+    }
+
+    private record VerifiedToken(AuthenticatedUser user, long expiresAtMillis) {
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
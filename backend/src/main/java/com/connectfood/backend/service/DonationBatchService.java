@@ -0,0 +1,195 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.dto.BatchItemResult;
+import com.connectfood.backend.event.DonationBatchEvent;
+import com.connectfood.backend.event.DonationEvent;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import com.connectfood.backend.model.Donor;
+import com.connectfood.backend.model.Recipient;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Multi-donation requests. The caller is resolved once for the whole batch and every item is
+ * validated on its own, so one bad item never blocks the rest. Creates are written in a single
+ * unordered bulk write; claims run the conditional findAndModify of {@link DonationClaimService}
+ * per donation, so concurrent claimants still get exactly one winner each and every winner is
+ * known from its own write. Stats and live events then follow for exactly the items that were written.
+ */
+@Service
+public class DonationBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationBatchService.class);
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // One result per item, in request order
+    public List<BatchItemResult> createAll(Donor donor, List<Donation> items) {
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        List<Donation> pending = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        Date now = new Date();
+        for (int i = 0; i < items.size(); i++) {
+            Donation donation = items.get(i);
+            String error = validationError(donation, now);
+            if (error != null) {
+                results[i] = BatchItemResult.failed(i, null, error);
+                continue;
+            }
+            donation.setDonorEmail(donor.getEmail());
+            donation.setDonorName(donor.getName());
+            donation.setCreatedAt(now);
+            donation.setStatus(DonationStatus.AVAILABLE);
+            donation.refreshDerivedFields();
+            // Bulk inserts neither report generated ids back nor initialise @Version, so both are set here
+            donation.setId(new ObjectId().toHexString());
+            donation.setVersion(0L);
+            pending.add(donation);
+            positions.add(i);
+        }
+
+        Map<Integer, String> writeErrors = new HashMap<>();
+        if (!pending.isEmpty()) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Donation.class).insert(pending).execute();
+            } catch (BulkOperationException e) {
+                // Unordered: every other insert was still attempted, errors carry the index within pending
+                for (BulkWriteError error : e.getErrors()) {
+                    writeErrors.put(error.getIndex(), error.getMessage());
+                }
+                log.warn("Batch create for {}: {} of {} inserts failed", donor.getEmail(), writeErrors.size(), pending.size());
+            }
+        }
+
+        List<Donation> created = new ArrayList<>();
+        for (int p = 0; p < pending.size(); p++) {
+            Donation donation = pending.get(p);
+            int index = positions.get(p);
+            String error = writeErrors.get(p);
+            if (error != null) {
+                results[index] = BatchItemResult.failed(index, null, "Failed to create donation: " + error);
+            } else {
+                results[index] = BatchItemResult.succeeded(index, donation.getId());
+                created.add(donation);
+            }
+        }
+        if (!created.isEmpty()) {
+            userStatsService.recordDonationsCreated(created);
+            // One event for the whole batch, so listeners apply it in a single pass
+            eventPublisher.publishEvent(new DonationBatchEvent(DonationEvent.Type.CREATED, created));
+        }
+        return Arrays.asList(results);
+    }
+
+    // Reserves each available donation for the recipient's organization; the losers were missing or already taken
+    public List<BatchItemResult> initiateAll(Recipient recipient, List<String> donationIds) {
+        Date now = new Date();
+        Claimed claimed = claimAll(donationIds,
+                DonationClaimService::available,
+                DonationClaimService.claim(recipient, now),
+                "Donation is no longer available for collection");
+        if (!claimed.won().isEmpty()) {
+            userStatsService.recordCollectionsInitiated(claimed.won());
+            eventPublisher.publishEvent(new DonationBatchEvent(DonationEvent.Type.INITIATED, claimed.won()));
+        }
+        return claimed.results();
+    }
+
+    // Completes each reservation held by the organization; the losers were not reserved by it
+    public List<BatchItemResult> collectAll(Recipient recipient, List<String> donationIds) {
+        String organizationName = recipient.getOrganizationName();
+        Date now = new Date();
+        Claimed claimed = claimAll(donationIds,
+                id -> DonationClaimService.reservedBy(id, organizationName),
+                DonationClaimService.collection(organizationName, now),
+                "Donation cannot be collected. It may have been collected by another organization or is not available.");
+        if (!claimed.won().isEmpty()) {
+            userStatsService.recordDonationsCollected(claimed.won());
+            eventPublisher.publishEvent(new DonationBatchEvent(DonationEvent.Type.COLLECTED, claimed.won()));
+        }
+        return claimed.results();
+    }
+
+    // One conditional findAndModify per id. A bulk write would only report counts, and reading the
+    // winners back afterwards can miss a donation a concurrent request already changed again
+    private Claimed claimAll(List<String> donationIds, Function<String, Query> precondition, Update update,
+                             String lostError) {
+        BatchItemResult[] results = new BatchItemResult[donationIds.size()];
+        Map<String, Integer> positions = new LinkedHashMap<>();
+        for (int i = 0; i < donationIds.size(); i++) {
+            String id = donationIds.get(i);
+            if (id == null || id.isBlank()) {
+                results[i] = BatchItemResult.failed(i, id, "Missing donation id");
+            } else if (positions.putIfAbsent(id, i) != null) {
+                results[i] = BatchItemResult.failed(i, id, "Duplicate donation id");
+            }
+        }
+
+        List<Donation> won = new ArrayList<>();
+        positions.forEach((id, index) -> {
+            Donation donation = mongoTemplate.findAndModify(precondition.apply(id), update,
+                    DonationClaimService.RETURN_NEW, Donation.class);
+            if (donation == null) {
+                results[index] = BatchItemResult.failed(index, id, lostError);
+            } else {
+                results[index] = BatchItemResult.succeeded(index, id);
+                won.add(donation);
+            }
+        });
+        return new Claimed(Arrays.asList(results), won);
+    }
+
+    private record Claimed(List<BatchItemResult> results, List<Donation> won) {
+    }
+
+    // null when the item can be created
+    static String validationError(Donation donation, Date now) {
+        if (donation == null) {
+            return "Missing donation";
+        }
+        if (donation.getQuantity() <= 0) {
+            return "quantity must be positive";
+        }
+        if (donation.getCity() == null || donation.getCity().isBlank()) {
+            return "city is required";
+        }
+        Double lat = donation.getLatitude();
+        Double lng = donation.getLongitude();
+        if ((lat == null) != (lng == null) || (lat != null && (lat < -90 || lat > 90 || lng < -180 || lng > 180))) {
+            return "Both latitude and longitude must be valid coordinates";
+        }
+        if (donation.getExpiryDate() != null && !donation.getExpiryDate().after(now)) {
+            return "expiryDate must be in the future";
+        }
+        return null;
+    }
+}
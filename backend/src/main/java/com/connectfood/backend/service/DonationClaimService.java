@@ -0,0 +1,90 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import com.connectfood.backend.model.Recipient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Donation state transitions as conditional findAndModify calls. The precondition lives in the
+ * query, so each attempt is one round trip and Mongo's per-document atomicity picks exactly one
+ * winner; losers get an empty result instead of an optimistic-locking failure.
+ */
+@Service
+public class DonationClaimService {
+
+    static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Reserves an available donation for the recipient's organization; empty if it was missing or already taken
+    public Optional<Donation> initiate(String donationId, Recipient recipient) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                available(donationId), claim(recipient, new Date()), RETURN_NEW, Donation.class));
+    }
+
+    // Completes a reservation held by the same organization; empty if there is none to complete
+    public Optional<Donation> collect(String donationId, String organizationName) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                reservedBy(donationId, organizationName), collection(organizationName, new Date()), RETURN_NEW, Donation.class));
+    }
+
+    // Withdraws the donor's own donation while it is still available or reserved; a dropped
+    // reservation keeps its initiatedBy, since releases are the only transition that clear it
+    public Optional<Donation> cancel(String donationId, String donorEmail) {
+        Set<DonationStatus> cancellable = DonationStatus.allowedBefore(DonationStatus.CANCELLED);
+        Query query = new Query(Criteria.where("id").is(donationId)
+                .and("donorEmail").is(donorEmail)
+                .and("status").in(cancellable));
+        Update cancel = transition(cancellable, DonationStatus.CANCELLED)
+                .set("cancelledAt", new Date());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, cancel, RETURN_NEW, Donation.class));
+    }
+
+    // Preconditions and writes shared with the batch variants in DonationBatchService
+    static Query available(String donationId) {
+        return new Query(Criteria.where("id").is(donationId)
+                .and("status").is(DonationStatus.AVAILABLE));
+    }
+
+    static Update claim(Recipient recipient, Date at) {
+        return transition(DonationStatus.AVAILABLE, DonationStatus.RESERVED)
+                .set("initiatedBy", recipient.getOrganizationName())
+                .set("initiatedByEmail", recipient.getEmail())
+                .set("initiatedAt", at);
+    }
+
+    static Query reservedBy(String donationId, String organizationName) {
+        return new Query(Criteria.where("id").is(donationId)
+                .and("status").is(DonationStatus.RESERVED)
+                .and("initiatedBy").is(organizationName));
+    }
+
+    static Update collection(String organizationName, Date at) {
+        return transition(DonationStatus.RESERVED, DonationStatus.COLLECTED)
+                .set("collectedBy", organizationName)
+                .set("collectedAt", at);
+    }
+
+    // The status write for a move the transition table allows; callers pin "from" in their query
+    static Update transition(DonationStatus from, DonationStatus to) {
+        return transition(Set.of(from), to);
+    }
+
+    // Same, for a query that pins any one of several current statuses
+    static Update transition(Set<DonationStatus> from, DonationStatus to) {
+        from.forEach(status -> DonationStatus.checkTransition(status, to));
+        return new Update().set("status", to).inc("version", 1);
+    }
+}
@@ -0,0 +1,144 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.event.DonationEvent;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-driven donation state changes, applied by a scheduled sweep in batches. Each batch is one
+ * indexed read of the oldest overdue ids, one updateMulti that re-checks the precondition (so a
+ * donation reserved in the meantime is left alone) and one read of what was actually changed,
+ * found by a token the update stamps, which then feeds the stats counters and the live event stream.
+ */
+@Service
+public class DonationLifecycleService {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationLifecycleService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${donations.lifecycle.batchSize:500}")
+    private int batchSize;
+
+    // How long an organization may hold a reservation without collecting it
+    @Value("${donations.reservation.ttlMinutes:120}")
+    private long reservationTtlMinutes;
+
+    @Scheduled(fixedDelayString = "${donations.lifecycle.sweepMs:60000}")
+    public void sweep() {
+        try {
+            // Released first, so a reservation that outlived the food's expiry is expired in the same run
+            int released = releaseStaleReservations();
+            int expired = expireOverdue();
+            if (released > 0 || expired > 0) {
+                log.info("Released {} stale reservations, expired {} donations", released, expired);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Donation lifecycle sweep failed: {}", e.getMessage());
+        }
+    }
+
+    // Reservations older than the TTL go back on offer; the organization loses its claim and collect returns 409
+    public int releaseStaleReservations() {
+        int total = 0;
+        while (true) {
+            Date now = new Date();
+            Criteria stale = Criteria.where("status").is(DonationStatus.RESERVED)
+                    .and("initiatedAt").lte(new Date(now.getTime() - TimeUnit.MINUTES.toMillis(reservationTtlMinutes)));
+            Query oldestFirst = new Query(stale).with(Sort.by("initiatedAt")).limit(batchSize);
+            oldestFirst.fields().include("id").include("initiatedByEmail");
+            // The release clears the holder, so remember who held each reservation for the stats
+            Map<String, String> holders = new HashMap<>();
+            mongoTemplate.find(oldestFirst, Donation.class)
+                    .forEach(donation -> holders.put(donation.getId(), donation.getInitiatedByEmail()));
+            if (holders.isEmpty()) {
+                return total;
+            }
+
+            String sweepToken = new ObjectId().toHexString();
+            Update release = DonationClaimService.transition(DonationStatus.RESERVED, DonationStatus.AVAILABLE)
+                    .unset("initiatedBy")
+                    .unset("initiatedByEmail")
+                    .unset("initiatedAt")
+                    .set("releasedAt", now)
+                    .set("sweepToken", sweepToken);
+            long modified = mongoTemplate.updateMulti(
+                    new Query(new Criteria().andOperator(Criteria.where("id").in(holders.keySet()), stale)), release, Donation.class)
+                    .getModifiedCount();
+            if (modified > 0) {
+                List<Donation> released = mongoTemplate.find(
+                        new Query(Criteria.where("id").in(holders.keySet()).and("sweepToken").is(sweepToken)), Donation.class);
+                userStatsService.recordReservationsReleased(released.stream().map(donation -> holders.get(donation.getId())).toList());
+                released.forEach(donation -> eventPublisher.publishEvent(new DonationEvent(DonationEvent.Type.RELEASED, donation)));
+                total += released.size();
+            }
+            if (holders.size() < batchSize || modified == 0) {
+                return total;
+            }
+        }
+    }
+
+    // Unreserved donations past their expiryDate drop out of the live set; reserved ones are left to the collector
+    public int expireOverdue() {
+        int total = 0;
+        while (true) {
+            Date now = new Date();
+            Criteria overdue = Criteria.where("status").is(DonationStatus.AVAILABLE)
+                    .and("expiryDate").lte(now);
+            Query oldestFirst = new Query(overdue).with(Sort.by("expiryDate")).limit(batchSize);
+            oldestFirst.fields().include("id");
+            List<String> ids = mongoTemplate.find(oldestFirst, Donation.class).stream()
+                    .map(Donation::getId)
+                    .toList();
+            if (ids.isEmpty()) {
+                return total;
+            }
+
+            // A timestamp is no batch marker: another sweep in the same millisecond would share it
+            String sweepToken = new ObjectId().toHexString();
+            Update expire = DonationClaimService.transition(DonationStatus.AVAILABLE, DonationStatus.EXPIRED)
+                    .set("expiredAt", now)
+                    .set("sweepToken", sweepToken);
+            long modified = mongoTemplate.updateMulti(
+                    new Query(new Criteria().andOperator(Criteria.where("id").in(ids), overdue)), expire, Donation.class)
+                    .getModifiedCount();
+            if (modified > 0) {
+                List<Donation> expired = mongoTemplate.find(
+                        new Query(Criteria.where("id").in(ids).and("sweepToken").is(sweepToken)), Donation.class);
+                userStatsService.recordDonationsExpired(expired);
+                expired.forEach(donation -> eventPublisher.publishEvent(new DonationEvent(DonationEvent.Type.EXPIRED, donation)));
+                total += expired.size();
+            }
+            if (ids.size() < batchSize || modified == 0) {
+                return total;
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.dto.DonationRecommendation;
+import com.connectfood.backend.event.DonationBatchEvent;
+import com.connectfood.backend.event.DonationEvent;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import com.connectfood.backend.model.Recipient;
+import com.connectfood.backend.util.GeoUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a ranked list of live donations per complete-profile recipient. A recipient's location,
+ * usual quantity, familiar donors and cities come from its collection history (the centroid of
+ * what it collected stands in for an address). A new or released donation is scored against every
+ * recipient as its event arrives, asynchronously so requests don't wait on it, and a claimed one is
+ * dropped from every list, so routine changes never recompute all pairs; a scheduled batch
+ * re-scores everyone on a fork-join pool within a time budget, to refresh urgency and pick up new
+ * history. Recipients without history share one ranking built from quantity and urgency alone.
+ */
+@Service
+public class DonationMatchingService {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationMatchingService.class);
+
+    public static final int TOP_K = 50;
+    // Located recipients are only matched with located donations this close; past it proximity adds under 0.04
+    static final double MAX_MATCH_KM = 25;
+    private static final double DISTANCE_SCALE_KM = 10;
+    private static final int MAX_HISTORY_KEYS = 500;
+    private static final Comparator<Scored> BY_SCORE = Comparator.comparingDouble(Scored::score);
+
+    private final MongoTemplate mongoTemplate;
+    private final LiveDonationIndex liveDonationIndex;
+    private final long budgetMs;
+    private final ForkJoinPool pool;
+    private final Timer rescoreTimer;
+
+    private volatile Map<String, RecipientProfile> profiles = Map.of();
+    private final Map<String, Matches> matches = new ConcurrentHashMap<>();
+    private final Matches generic = new Matches();
+
+    // Non-null while a batch re-score runs; changes seen meanwhile are replayed onto its results.
+    // A lock rather than synchronized, so an async listener on a virtual thread does not pin its carrier
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private List<Donation> changesDuringRescore;
+
+    public DonationMatchingService(MongoTemplate mongoTemplate,
+                                   LiveDonationIndex liveDonationIndex,
+                                   @Value("${matching.budgetMs:30000}") long budgetMs,
+                                   @Value("${matching.parallelism:0}") int parallelism,
+                                   MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.liveDonationIndex = liveDonationIndex;
+        this.budgetMs = budgetMs;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.rescoreTimer = Timer.builder("matching.rescore").register(meterRegistry);
+        meterRegistry.gauge("matching.recipients", this, service -> service.profiles.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Best matches first. lat/lng, when given, override the location learned from history
+    public List<DonationRecommendation> recommend(Recipient recipient, Double lat, Double lng, int limit) {
+        RecipientProfile profile = profiles.get(recipient.getEmail());
+        List<Scored> ranked;
+        if (lat != null && lng != null) {
+            RecipientProfile located = (profile != null ? profile : RecipientProfile.withoutHistory(recipient.getEmail())).at(lat, lng);
+            ranked = rank(located, System.currentTimeMillis());
+            profile = located;
+        } else if (profile != null && matches.containsKey(profile.email())) {
+            ranked = matches.get(profile.email()).ranked();
+        } else {
+            profile = RecipientProfile.withoutHistory(recipient.getEmail());
+            ranked = generic.ranked();
+        }
+
+        List<DonationRecommendation> recommendations = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Scored scored : ranked) {
+            if (recommendations.size() >= limit) {
+                break;
+            }
+            // A stored ranking can trail a claim by the time its async removal takes
+            if (!liveDonationIndex.isLive(scored.donation())) {
+                continue;
+            }
+            recommendations.add(new DonationRecommendation(scored.donation(), scored.score(), distanceKm(profile, scored.donation())));
+        }
+        return recommendations;
+    }
+
+    // Off the request thread: each new donation is scored against every recipient. Ordered after
+    // LiveDonationIndex, so the index already has this change when the task is handed off
+    @Async
+    @Order(1)
+    @EventListener
+    public void onDonationEvent(DonationEvent event) {
+        applyAll(List.of(event.donation()));
+    }
+
+    // A batch is one async task with one journal update, not one task per donation
+    @Async
+    @Order(1)
+    @EventListener
+    public void onDonationBatch(DonationBatchEvent event) {
+        applyAll(event.donations());
+    }
+
+    private void applyAll(List<Donation> donations) {
+        List<Donation> changes = donations.stream()
+                .filter(donation -> donation != null && donation.getId() != null)
+                .toList();
+        if (changes.isEmpty()) {
+            return;
+        }
+        journalLock.lock();
+        try {
+            if (changesDuringRescore != null) {
+                changesDuringRescore.addAll(changes);
+            }
+        } finally {
+            journalLock.unlock();
+        }
+        long now = System.currentTimeMillis();
+        changes.forEach(donation -> apply(donation, now));
+    }
+
+    @Scheduled(fixedDelayString = "${matching.rescoreMs:600000}", initialDelayString = "${matching.initialDelayMs:60000}")
+    public void rescoreAll() {
+        if (!liveDonationIndex.isLoaded()) {
+            return;
+        }
+        journalLock.lock();
+        try {
+            changesDuringRescore = new ArrayList<>();
+        } finally {
+            journalLock.unlock();
+        }
+        long start = System.nanoTime();
+        try {
+            Map<String, RecipientProfile> fresh = loadProfiles();
+            List<Donation> live = liveDonationIndex.allLive();
+            long now = System.currentTimeMillis();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+
+            Map<String, List<Scored>> results = new ConcurrentHashMap<>();
+            AtomicInteger overBudget = new AtomicInteger();
+            pool.submit(() -> fresh.values().parallelStream().forEach(profile -> {
+                if (System.nanoTime() > deadline) {
+                    overBudget.incrementAndGet();
+                    return;
+                }
+                results.put(profile.email(), profile.hasLocation() ? rank(profile, now) : topK(profile, live, now));
+            })).join();
+            List<Scored> genericRanking = topK(RecipientProfile.withoutHistory(null), live, now);
+
+            journalLock.lock();
+            try {
+                profiles = fresh;
+                matches.keySet().retainAll(fresh.keySet());
+                results.forEach((email, ranked) -> matches.computeIfAbsent(email, key -> new Matches()).replace(ranked));
+                generic.replace(genericRanking);
+                changesDuringRescore.forEach(change -> apply(change, now));
+            } finally {
+                journalLock.unlock();
+            }
+            rescoreTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (overBudget.get() > 0) {
+                log.warn("Matching re-score hit its {} ms budget; {} of {} recipients kept their previous ranking",
+                        budgetMs, overBudget.get(), fresh.size());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Matching re-score failed: {}", e.getMessage());
+        } finally {
+            journalLock.lock();
+            try {
+                changesDuringRescore = null;
+            } finally {
+                journalLock.unlock();
+            }
+        }
+    }
+
+    private void apply(Donation donation, long now) {
+        // Async events can run out of order; the index has already dropped any that were superseded
+        if (donation.getStatus() != DonationStatus.AVAILABLE || !liveDonationIndex.isLive(donation)) {
+            remove(donation);
+            return;
+        }
+        for (RecipientProfile profile : profiles.values()) {
+            Matches ranked = matches.get(profile.email());
+            if (ranked != null) {
+                Double km = distanceKm(profile, donation);
+                if (isCandidate(profile, donation, km)) {
+                    ranked.offer(new Scored(donation, score(profile, donation, km, now)));
+                }
+            }
+        }
+        generic.offer(new Scored(donation, score(RecipientProfile.withoutHistory(null), donation, null, now)));
+        // Claimed while it was being offered: its removal may have run before the offers landed
+        if (!liveDonationIndex.isLive(donation)) {
+            remove(donation);
+        }
+    }
+
+    private void remove(Donation donation) {
+        matches.values().forEach(ranked -> ranked.remove(donation.getId()));
+        generic.remove(donation.getId());
+    }
+
+    // Complete-profile recipients with what their organization's collections say about them
+    private Map<String, RecipientProfile> loadProfiles() {
+        Query complete = new Query(Criteria.where("profileComplete").is(true).and("organizationName").ne(null));
+        complete.fields().include("email").include("organizationName");
+        List<Recipient> recipients = mongoTemplate.find(complete, Recipient.class);
+
+        Map<String, Document> history = new HashMap<>();
+        mongoTemplate.aggregate(Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("status").is(DonationStatus.COLLECTED.name()).and("collectedBy").ne(null)),
+                        Aggregation.group("collectedBy")
+                                .count().as("collected")
+                                .avg("quantity").as("typicalQuantity")
+                                .avg("latitude").as("latitude")
+                                .avg("longitude").as("longitude")
+                                .addToSet("donorEmail").as("donors")
+                                .addToSet("cityKey").as("cityKeys")),
+                        Donation.class, Document.class)
+                .forEach(group -> history.put(group.getString("_id"), group));
+
+        Map<String, RecipientProfile> loaded = new HashMap<>();
+        for (Recipient recipient : recipients) {
+            Document collected = history.get(recipient.getOrganizationName());
+            loaded.put(recipient.getEmail(), collected == null
+                    ? RecipientProfile.withoutHistory(recipient.getEmail())
+                    : RecipientProfile.fromHistory(recipient.getEmail(), collected));
+        }
+        return loaded;
+    }
+
+    // Only the grid around the recipient, whose scan already yields each distance, plus the unlocated
+    // donations in its cities; neither touches the rest of the live set
+    private List<Scored> rank(RecipientProfile profile, long now) {
+        BestScores best = new BestScores();
+        liveDonationIndex.forEachWithinRadius(profile.latitude(), profile.longitude(), MAX_MATCH_KM,
+                (donation, km) -> best.offer(donation, score(profile, donation, km, now)));
+        for (String city : profile.cityKeys()) {
+            liveDonationIndex.forEachUnlocatedIn(city, donation -> best.offer(donation, score(profile, donation, null, now)));
+        }
+        return best.ranked();
+    }
+
+    // Recipients without a location filter the whole live set
+    static List<Scored> topK(RecipientProfile profile, Collection<Donation> live, long now) {
+        BestScores best = new BestScores();
+        for (Donation donation : live) {
+            Double km = distanceKm(profile, donation);
+            if (isCandidate(profile, donation, km)) {
+                best.offer(donation, score(profile, donation, km, now));
+            }
+        }
+        return best.ranked();
+    }
+
+    static boolean isCandidate(RecipientProfile profile, Donation donation, Double km) {
+        if (km != null) {
+            return km <= MAX_MATCH_KM;
+        }
+        return profile.cityKeys().isEmpty() || profile.cityKeys().contains(cityKey(donation));
+    }
+
+    // Weighted blend of distance, quantity fit, expiry urgency and history with the donor, in [0, 1]
+    static double score(RecipientProfile profile, Donation donation, Double km, long now) {
+        double proximity = km != null
+                ? Math.exp(-km / DISTANCE_SCALE_KM)
+                : profile.cityKeys().contains(cityKey(donation)) ? 0.5 : 0.25;
+
+        // 1 at the recipient's usual quantity, 0 at ten times more or less
+        double quantityFit = profile.typicalQuantity() > 0 && donation.getQuantity() > 0
+                ? Math.max(0, 1 - Math.abs(Math.log(donation.getQuantity() / profile.typicalQuantity())) / Math.log(10))
+                : 0.5;
+
+        double urgency = 0.2;
+        if (donation.getExpiryDate() != null) {
+            double hoursLeft = Math.max(0, donation.getExpiryDate().getTime() - now) / 3_600_000.0;
+            urgency = 1 / (1 + hoursLeft / 24);
+        }
+
+        double history = (profile.donors().contains(donation.getDonorEmail()) ? 0.7 : 0)
+                + 0.3 * Math.min(1, profile.collected() / 20.0);
+
+        return 0.4 * proximity + 0.2 * quantityFit + 0.25 * urgency + 0.15 * history;
+    }
+
+    private static Double distanceKm(RecipientProfile profile, Donation donation) {
+        if (!profile.hasLocation() || !hasLocation(donation)) {
+            return null;
+        }
+        return GeoUtils.distanceKm(profile.latitude(), profile.longitude(), donation.getLatitude(), donation.getLongitude());
+    }
+
+    private static boolean hasLocation(Donation donation) {
+        return donation.getLatitude() != null && donation.getLongitude() != null;
+    }
+
+    private static String cityKey(Donation donation) {
+        return donation.getCityKey() != null ? donation.getCityKey() : Donation.normalizeKey(donation.getCity());
+    }
+
+    record RecipientProfile(String email, Double latitude, Double longitude, double typicalQuantity,
+                            long collected, Set<String> donors, Set<String> cityKeys) {
+
+        static RecipientProfile withoutHistory(String email) {
+            return new RecipientProfile(email, null, null, 0, 0, Set.of(), Set.of());
+        }
+
+        static RecipientProfile fromHistory(String email, Document group) {
+            Number typical = group.get("typicalQuantity", Number.class);
+            Number collected = group.get("collected", Number.class);
+            return new RecipientProfile(email,
+                    group.getDouble("latitude"),
+                    group.getDouble("longitude"),
+                    typical == null ? 0 : typical.doubleValue(),
+                    collected == null ? 0 : collected.longValue(),
+                    capped(group.getList("donors", String.class)),
+                    capped(group.getList("cityKeys", String.class)));
+        }
+
+        RecipientProfile at(double lat, double lng) {
+            return new RecipientProfile(email, lat, lng, typicalQuantity, collected, donors, cityKeys);
+        }
+
+        boolean hasLocation() {
+            return latitude != null && longitude != null;
+        }
+
+        private static Set<String> capped(List<String> values) {
+            Set<String> set = new HashSet<>();
+            if (values != null) {
+                values.stream().filter(value -> value != null).limit(MAX_HISTORY_KEYS).forEach(set::add);
+            }
+            return Set.copyOf(set);
+        }
+    }
+
+    record Scored(Donation donation, double score) {
+    }
+
+    // Bounded min-heap for a full ranking: each offer costs O(log TOP_K) however many candidates there are
+    private static final class BestScores {
+
+        private final PriorityQueue<Scored> heap = new PriorityQueue<>(TOP_K + 1, BY_SCORE);
+
+        void offer(Donation donation, double score) {
+            if (heap.size() < TOP_K || score > heap.peek().score()) {
+                heap.add(new Scored(donation, score));
+                if (heap.size() > TOP_K) {
+                    heap.poll();
+                }
+            }
+        }
+
+        List<Scored> ranked() {
+            List<Scored> ranked = new ArrayList<>(heap);
+            ranked.sort(BY_SCORE.reversed());
+            return ranked;
+        }
+    }
+
+    // Best TOP_K scores for one recipient, best first. An immutable list swapped atomically, so
+    // readers take it without locking or copying and concurrent writers retry rather than block
+    static final class Matches {
+
+        private final AtomicReference<List<Scored>> ranked = new AtomicReference<>(List.of());
+
+        void offer(Scored candidate) {
+            ranked.updateAndGet(current -> {
+                List<Scored> updated = new ArrayList<>(current.size() + 1);
+                for (Scored scored : current) {
+                    if (!scored.donation().getId().equals(candidate.donation().getId())) {
+                        updated.add(scored);
+                    }
+                }
+                if (updated.size() < TOP_K || candidate.score() > updated.get(updated.size() - 1).score()) {
+                    int position = 0;
+                    while (position < updated.size() && updated.get(position).score() >= candidate.score()) {
+                        position++;
+                    }
+                    updated.add(position, candidate);
+                    if (updated.size() > TOP_K) {
+                        updated.remove(updated.size() - 1);
+                    }
+                }
+                return Collections.unmodifiableList(updated);
+            });
+        }
+
+        void remove(String donationId) {
+            ranked.updateAndGet(current -> current.stream().anyMatch(scored -> scored.donation().getId().equals(donationId))
+                    ? current.stream().filter(scored -> !scored.donation().getId().equals(donationId)).toList()
+                    : current);
+        }
+
+        void replace(List<Scored> best) {
+            ranked.set(List.copyOf(best));
+        }
+
+        List<Scored> ranked() {
+            return ranked.get();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.event.DonationBatchEvent;
+import com.connectfood.backend.event.DonationEvent;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.util.GeoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes donation events to Server-Sent Events subscribers. Emitters are async-servlet responses,
+ * so an idle subscriber holds a connection but no thread; events are fanned out on the async task
+ * executor so the request that changed the donation never waits on slow clients.
+ */
+@Service
+public class DonationStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(DonationStreamService.class);
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    // Slots are reserved here before a subscription is added, so concurrent subscribes cannot overshoot the limit
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Value("${donations.stream.timeoutMs:1800000}")
+    private long timeoutMs;
+
+    @Value("${donations.stream.maxSubscribers:10000}")
+    private int maxSubscribers;
+
+    // Empty when the subscriber limit is reached
+    public Optional<SseEmitter> subscribe(String city, String district, Double lat, Double lng, double radiusKm) {
+        int reserved;
+        do {
+            reserved = subscriberCount.get();
+            if (reserved >= maxSubscribers) {
+                return Optional.empty();
+            }
+        } while (!subscriberCount.compareAndSet(reserved, reserved + 1));
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(emitter, Donation.normalizeKey(city),
+                Donation.normalizeKey(district), lat, lng, radiusKm);
+        subscriptions.add(subscription);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        // Flushes the response headers so the client sees the stream open right away; a failure frees the slot
+        send(subscription, SseEmitter.event().comment("subscribed"));
+        return Optional.of(emitter);
+    }
+
+    @Async
+    @EventListener
+    public void onDonationEvent(DonationEvent event) {
+        push(event.type(), List.of(event.donation()));
+    }
+
+    @Async
+    @EventListener
+    public void onDonationBatch(DonationBatchEvent event) {
+        push(event.type(), event.donations());
+    }
+
+    // Keeps idle connections open through proxies and weeds out clients that went away
+    @Scheduled(fixedDelayString = "${donations.stream.heartbeatMs:30000}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            send(subscription, SseEmitter.event().comment("keepalive"));
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void push(DonationEvent.Type type, List<Donation> donations) {
+        String name = type.name().toLowerCase(Locale.ROOT);
+        for (Donation donation : donations) {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.matches(donation)) {
+                    send(subscription, SseEmitter.event().name(name).data(donation));
+                }
+            }
+        }
+    }
+
+    private void send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.emitter().send(event);
+        } catch (IOException | IllegalStateException e) {
+            remove(subscription);
+            log.debug("Dropping SSE subscriber: {}", e.getMessage());
+        }
+    }
+
+    // Completion, timeout, error and failed sends can all report the same subscriber; only the first frees its slot
+    private void remove(Subscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private record Subscription(SseEmitter emitter, String cityKey, String districtKey,
+                                Double lat, Double lng, double radiusKm) {
+
+        // Same semantics as /live: geo radius when coordinates were given, otherwise city/district prefixes
+        boolean matches(Donation donation) {
+            if (lat != null && lng != null) {
+                return donation.getLatitude() != null && donation.getLongitude() != null
+                        && GeoUtils.distanceKm(lat, lng, donation.getLatitude(), donation.getLongitude()) <= radiusKm;
+            }
+            return Donation.normalizeKey(donation.getCity()).startsWith(cityKey)
+                    && Donation.normalizeKey(donation.getDistrict()).startsWith(districtKey);
+        }
+    }
+}
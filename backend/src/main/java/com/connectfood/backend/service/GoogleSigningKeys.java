@@ -0,0 +1,188 @@
+package com.connectfood.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Google's ID-token signing keys (JWKS), fetched ahead of expiry on a background schedule and kept
+ * for the Cache-Control max-age Google sends. Logins read the held key set and only wait on the
+ * network when no unexpired set is held, or when a token names a key we have not seen yet (Google
+ * rotated before our next refresh); the latter is throttled so bad tokens cannot hammer Google.
+ */
+@Component
+public class GoogleSigningKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleSigningKeys.class);
+
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+    private static final Duration REFRESH_AHEAD = Duration.ofMinutes(5);
+    private static final Duration MIN_UNKNOWN_KEY_REFRESH_INTERVAL = Duration.ofSeconds(30);
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final HttpTransport transport;
+    private final String certsUrl;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile KeySet keySet;
+    private volatile long lastUnknownKeyRefreshMillis;
+
+    @Autowired
+    public GoogleSigningKeys(@Value("${google.certsUrl:https://www.googleapis.com/oauth2/v3/certs}") String certsUrl,
+                             MeterRegistry meterRegistry) {
+        this(new NetHttpTransport(), certsUrl, Clock.systemUTC(), meterRegistry);
+    }
+
+    GoogleSigningKeys(HttpTransport transport, String certsUrl, Clock clock, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.certsUrl = certsUrl;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Null when the key id is unknown even after a refresh
+    public PublicKey find(String keyId) throws IOException {
+        KeySet current = keySet;
+        long now = clock.millis();
+        if (current == null || current.expiresAtMillis() <= now) {
+            current = refresh(current);
+        }
+        PublicKey key = current.keys().get(keyId);
+        if (key == null && now - lastUnknownKeyRefreshMillis >= MIN_UNKNOWN_KEY_REFRESH_INTERVAL.toMillis()) {
+            lastUnknownKeyRefreshMillis = now;
+            key = refresh(current).keys().get(keyId);
+        }
+        return key;
+    }
+
+    // Also runs once at startup, so the first login normally finds keys already loaded
+    @Scheduled(fixedDelayString = "${google.certs.checkIntervalMs:60000}")
+    public void refreshIfDue() {
+        KeySet current = keySet;
+        if (current != null && current.refreshAtMillis() > clock.millis()) {
+            return;
+        }
+        try {
+            refresh(current);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not refresh Google signing keys: {}", e.getMessage());
+        }
+    }
+
+    // Single flight: callers that queued behind a refresh reuse its result instead of fetching again
+    private KeySet refresh(KeySet seen) throws IOException {
+        refreshLock.lock();
+        try {
+            KeySet current = keySet;
+            if (current != seen && current != null) {
+                return current;
+            }
+            try {
+                keySet = fetch();
+                return keySet;
+            } catch (IOException | RuntimeException e) {
+                if (current == null) {
+                    throw e;
+                }
+                // Google keeps retired keys published for a while, so a stale set beats failing every login
+                log.warn("Google signing key refresh failed, keeping the previous key set: {}", e.getMessage());
+                return current;
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private KeySet fetch() throws IOException {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            HttpResponse response = transport.createRequestFactory().buildGetRequest(new GenericUrl(certsUrl)).execute();
+            try {
+                Map<String, PublicKey> keys = parseJwks(response.getContent());
+                long maxAgeMillis = maxAgeMillis(response.getHeaders());
+                long now = clock.millis();
+                long refreshAhead = Math.min(REFRESH_AHEAD.toMillis(), maxAgeMillis / 2);
+                outcome = "success";
+                return new KeySet(keys, now + maxAgeMillis, now + maxAgeMillis - refreshAhead);
+            } finally {
+                response.disconnect();
+            }
+        } finally {
+            if (meterRegistry != null) {
+                Timer.builder("google.certs.refresh")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+    }
+
+    private Map<String, PublicKey> parseJwks(InputStream content) throws IOException {
+        JsonNode root = objectMapper.readTree(content);
+        Map<String, PublicKey> keys = new HashMap<>();
+        try {
+            KeyFactory rsa = KeyFactory.getInstance("RSA");
+            for (JsonNode jwk : root.path("keys")) {
+                if (!"RSA".equals(jwk.path("kty").asText())) {
+                    continue;
+                }
+                BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("n").asText()));
+                BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("e").asText()));
+                keys.put(jwk.path("kid").asText(), rsa.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IOException("Malformed key in Google JWKS", e);
+        }
+        if (keys.isEmpty()) {
+            throw new IOException("Google JWKS contained no RSA keys");
+        }
+        return Map.copyOf(keys);
+    }
+
+    // Cache-Control max-age less the Age a shared cache may already have added
+    private static long maxAgeMillis(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        Matcher matcher = cacheControl == null ? null : MAX_AGE.matcher(cacheControl);
+        if (matcher == null || !matcher.find()) {
+            return DEFAULT_MAX_AGE.toMillis();
+        }
+        long maxAgeSeconds = Long.parseLong(matcher.group(1));
+        Long age = headers.getAge();
+        return Duration.ofSeconds(Math.max(maxAgeSeconds - (age == null ? 0 : age), 0)).toMillis();
+    }
+
+    private record KeySet(Map<String, PublicKey> keys, long expiresAtMillis, long refreshAtMillis) {
+    }
+}
@@ -1,37 +1,150 @@
 package com.connectfood.backend.service;
 
+import com.connectfood.backend.util.TokenHash;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
-import java.util.Collections;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Verifies Google ID tokens against the keys held by {@link GoogleSigningKeys}, so a login never
+ * waits on a key download while a valid key set is held. A token that already verified is answered
+ * from a small cache until its exp claim, which covers client retries and double-submitted logins.
+ */
 @Service
 public class GoogleTokenVerifier {
 
-    @Value("${google.clientId}")
-    private String clientId;
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    private static final List<String> ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+    // Same clock skew allowance as Google's own IdTokenVerifier
+    private static final long ACCEPTABLE_SKEW_SECONDS = 300;
 
-    private GoogleIdTokenVerifier verifier;
+    private final List<String> audience;
+    private final GoogleSigningKeys signingKeys;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, VerifiedIdToken> verified;
 
-    public GoogleTokenVerifier(@Value("${google.clientId}") String clientId) {
-        this.clientId = clientId;
-        this.verifier = new GoogleIdTokenVerifier.Builder(
-                new NetHttpTransport(), GsonFactory.getDefaultInstance())
-                .setAudience(Collections.singletonList(clientId))
+    @Autowired
+    public GoogleTokenVerifier(@Value("${google.clientId}") String clientId,
+                               @Value("${google.tokenCache.maxSize:10000}") long maxSize,
+                               GoogleSigningKeys signingKeys,
+                               MeterRegistry meterRegistry) {
+        this(clientId, maxSize, signingKeys, Clock.systemUTC(), meterRegistry);
+    }
+
+    GoogleTokenVerifier(String clientId, long maxSize, GoogleSigningKeys signingKeys, Clock clock,
+                        MeterRegistry meterRegistry) {
+        this.audience = List.of(clientId);
+        this.signingKeys = signingKeys;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(clock))
+                .recordStats()
                 .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, verified, "verifiedGoogleTokens");
+        }
     }
 
+    // Null for malformed, forged, expired or foreign-audience tokens
     public GoogleIdToken.Payload verify(String idTokenString) throws GeneralSecurityException, IOException {
-        GoogleIdToken idToken = verifier.verify(idTokenString);
-        if (idToken != null) {
-            return idToken.getPayload();
+        long start = System.nanoTime();
+        String result = "rejected";
+        try {
+            String key = TokenHash.sha256(idTokenString);
+            VerifiedIdToken cached = verified.getIfPresent(key);
+            if (cached != null && cached.expiresAtMillis() > clock.millis()) {
+                result = "cached";
+                return cached.payload();
+            }
+
+            GoogleIdToken.Payload payload = verifySignedToken(idTokenString);
+            if (payload == null) {
+                return null;
+            }
+            result = "verified";
+            Long expirationSeconds = payload.getExpirationTimeSeconds();
+            if (expirationSeconds != null) {
+                verified.put(key, new VerifiedIdToken(payload, TimeUnit.SECONDS.toMillis(expirationSeconds)));
+            }
+            return payload;
+        } finally {
+            if (meterRegistry != null) {
+                Timer.builder("google.idtoken.verify")
+                        .tag("result", result)
+                        .register(meterRegistry)
+                        .record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+    }
+
+    private GoogleIdToken.Payload verifySignedToken(String idTokenString) throws GeneralSecurityException, IOException {
+        GoogleIdToken idToken;
+        try {
+            idToken = GoogleIdToken.parse(JSON_FACTORY, idTokenString);
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+        String keyId = idToken.getHeader().getKeyId();
+        if (keyId == null) {
+            return null;
+        }
+        PublicKey publicKey = signingKeys.find(keyId);
+        if (publicKey == null || !idToken.verifySignature(publicKey)) {
+            return null;
+        }
+        if (!idToken.verifyIssuer(ISSUERS)
+                || !idToken.verifyAudience(audience)
+                || !idToken.verifyTime(clock.millis(), ACCEPTABLE_SKEW_SECONDS)) {
+            return null;
+        }
+        return idToken.getPayload();
+    }
+
+    private record VerifiedIdToken(GoogleIdToken.Payload payload, long expiresAtMillis) {
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedIdToken> {
+
+        private final Clock clock;
+
+        UntilTokenExpiry(Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedIdToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - clock.millis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedIdToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedIdToken value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
-        return null;
     }
 }
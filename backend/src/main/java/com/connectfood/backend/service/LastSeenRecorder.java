@@ -0,0 +1,151 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.model.Donor;
+import com.connectfood.backend.model.Recipient;
+import com.connectfood.backend.model.Role;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind store for users' lastLoginAt. Page views only touch an in-memory map that keeps the
+ * newest timestamp per user; a scheduled flush turns everything pending into one unordered bulk
+ * write of $max updates per collection, so a burst of views costs one write per user per interval
+ * and an older timestamp can never overwrite a newer one. The map is bounded; when it is full,
+ * timestamps for users not already pending are dropped and counted rather than blocking requests.
+ * Flushes leave the user lookup cache alone, since evicting every recently active user each
+ * interval would drop exactly its hottest entries; the cached users' lastLoginAt is therefore stale,
+ * and anything that shows it reads it through {@link #lastSeen} instead.
+ */
+@Service
+public class LastSeenRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(LastSeenRecorder.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxPending;
+    private final Map<PendingUser, Long> pending = new ConcurrentHashMap<>();
+
+    private final Counter dropped;
+    private final DistributionSummary flushSize;
+    private final Timer flushTimer;
+
+    public LastSeenRecorder(MongoTemplate mongoTemplate,
+                            @Value("${lastSeen.maxPending:50000}") int maxPending,
+                            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxPending = maxPending;
+        this.dropped = Counter.builder("lastseen.dropped").register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("lastseen.flush.size").register(meterRegistry);
+        this.flushTimer = Timer.builder("lastseen.flush").register(meterRegistry);
+        meterRegistry.gaugeMapSize("lastseen.pending", List.of(), pending);
+    }
+
+    public void record(String email, Role role) {
+        PendingUser user = new PendingUser(email, role);
+        long now = System.currentTimeMillis();
+        if (pending.size() >= maxPending && !pending.containsKey(user)) {
+            dropped.increment();
+            return;
+        }
+        pending.merge(user, now, Math::max);
+    }
+
+    // Newest known timestamp for the user: the stored one, read uncached, or a pending one if newer
+    public Date lastSeen(String email, Role role) {
+        Query byEmail = Query.query(Criteria.where("email").is(email));
+        byEmail.fields().include("lastLoginAt");
+        Date stored = role == Role.DONOR
+                ? Optional.ofNullable(mongoTemplate.findOne(byEmail, Donor.class)).map(Donor::getLastLoginAt).orElse(null)
+                : Optional.ofNullable(mongoTemplate.findOne(byEmail, Recipient.class)).map(Recipient::getLastLoginAt).orElse(null);
+        Long pendingAt = pending.get(new PendingUser(email, role));
+        if (pendingAt != null && (stored == null || pendingAt > stored.getTime())) {
+            return new Date(pendingAt);
+        }
+        return stored;
+    }
+
+    @Scheduled(fixedDelayString = "${lastSeen.flushIntervalMs:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // remove() hands each timestamp to exactly one flush, even if shutdown and the schedule overlap
+        List<PendingUpdate> batch = new ArrayList<>();
+        for (PendingUser user : pending.keySet()) {
+            Long seenAt = pending.remove(user);
+            if (seenAt != null) {
+                batch.add(new PendingUpdate(user, seenAt));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        flushSize.record(batch.size());
+        try {
+            flushTimer.record(() -> write(batch));
+        } catch (DataAccessException e) {
+            log.warn("Could not flush {} last-seen timestamps: {}", batch.size(), e.getMessage());
+            // Put them back for the next flush unless newer ones arrived meanwhile
+            batch.forEach(update -> pending.merge(update.user(), update.seenAt(), Math::max));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<PendingUpdate> batch) {
+        BulkOperations donors = null;
+        BulkOperations recipients = null;
+        for (PendingUpdate update : batch) {
+            Query byEmail = Query.query(Criteria.where("email").is(update.user().email()));
+            Update newer = new Update().max("lastLoginAt", new Date(update.seenAt()));
+            if (update.user().role() == Role.DONOR) {
+                if (donors == null) {
+                    donors = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Donor.class);
+                }
+                donors.updateOne(byEmail, newer);
+            } else {
+                if (recipients == null) {
+                    recipients = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipient.class);
+                }
+                recipients.updateOne(byEmail, newer);
+            }
+        }
+        if (donors != null) {
+            donors.execute();
+        }
+        if (recipients != null) {
+            recipients.execute();
+        }
+    }
+
+    private record PendingUser(String email, Role role) {
+    }
+
+    private record PendingUpdate(PendingUser user, long seenAt) {
+    }
+}
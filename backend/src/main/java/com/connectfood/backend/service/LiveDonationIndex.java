@@ -0,0 +1,500 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.dto.DonationCursor;
+import com.connectfood.backend.event.DonationBatchEvent;
+import com.connectfood.backend.event.DonationEvent;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import com.connectfood.backend.repository.DonationRepository;
+import com.connectfood.backend.util.GeoGridIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copy of the AVAILABLE donations, answering the live listing without a Mongo round trip.
+ * Readers take an immutable snapshot bucketed by cityKey then districtKey, each bucket sorted newest
+ * first; writers replace only the touched bucket and publish a new snapshot. It follows the local
+ * DonationEvents synchronously, so a node sees its own writes at once, and reloads from Mongo on a
+ * schedule to pick up other nodes' writes. Donations with coordinates are also kept in a
+ * {@link GeoGridIndex} for the nearest-first search, and the rest by city; both are part of the same
+ * snapshot, so a reader never sees the listing and the grid at different points. Until the first
+ * load succeeds, queries go to Mongo. Returned donations are shared between requests and must be
+ * treated as read-only.
+ */
+@Service
+public class LiveDonationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveDonationIndex.class);
+
+    // Same order as the repository listing and its keyset cursors: createdAt desc, id desc
+    static final Comparator<Donation> NEWEST_FIRST = Comparator.comparing(Donation::getCreatedAt)
+            .thenComparing(Donation::getId)
+            .reversed();
+
+    private final DonationRepository donationRepository;
+    private final Timer resyncTimer;
+
+    // ~2.2 km cells: a 10 km search touches a few dozen cells
+    private static final double GRID_CELL_DEGREES = 0.02;
+
+    private volatile Snapshot snapshot;
+
+    // Guards snapshot replacement; a lock rather than synchronized, as writers run on request threads
+    // that may be virtual. The journal is non-null while a resync is reading, so changes made
+    // meanwhile are replayed on top
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private List<Donation> changesDuringResync;
+
+    // Version at which recently removed donations left the index, so a late, older event can't bring
+    // one back; live donations carry their version in the snapshot. Bounded, oldest removals go first
+    private static final int MAX_REMOVED_VERSIONS = 100_000;
+    private final Map<String, Long> removedVersions = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_REMOVED_VERSIONS;
+        }
+    };
+
+    public LiveDonationIndex(DonationRepository donationRepository, MeterRegistry meterRegistry) {
+        this.donationRepository = donationRepository;
+        this.resyncTimer = Timer.builder("donations.live.resync").register(meterRegistry);
+        meterRegistry.gauge("donations.live.indexed", this, index -> index.snapshot == null ? 0 : index.snapshot.size());
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    // Every live donation, newest first; empty until the first load
+    public List<Donation> allLive() {
+        return snapshot == null ? List.of() : findLivePage("", "", Integer.MIN_VALUE, null, Integer.MAX_VALUE);
+    }
+
+    // Visits live donations with coordinates within radiusKm with their distance, unordered; none until the first load
+    public void forEachWithinRadius(double lat, double lng, double radiusKm, ObjDoubleConsumer<Donation> visitor) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.grid().forEachWithinRadius(lat, lng, radiusKm, visitor);
+        }
+    }
+
+    // Whether the index still holds this donation as live; lets listeners that run later than the
+    // index (e.g. asynchronously) skip a change that has since been superseded. True until the first load
+    public boolean isLive(Donation donation) {
+        Snapshot current = snapshot;
+        return current == null || current.find(donation) != null;
+    }
+
+    // Visits the live donations without coordinates in one city; none until the first load
+    public void forEachUnlocatedIn(String cityKey, Consumer<Donation> visitor) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            for (Donation donation : current.unlocated().getOrDefault(cityKey, new Donation[0])) {
+                visitor.accept(donation);
+            }
+        }
+    }
+
+    public List<Donation> findLivePage(String city, String district, int minQuantity, DonationCursor after, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return donationRepository.findLivePage(city, district, minQuantity, after, limit);
+        }
+
+        // k-way merge of the matching buckets, each already newest first
+        PriorityQueue<BucketCursor> heads = new PriorityQueue<>(Comparator.comparing(BucketCursor::current, NEWEST_FIRST));
+        for (Donation[] bucket : current.matching(Donation.normalizeKey(city), Donation.normalizeKey(district))) {
+            int start = after == null ? 0 : firstAfter(bucket, after);
+            if (start < bucket.length) {
+                heads.add(new BucketCursor(bucket, start));
+            }
+        }
+        List<Donation> page = new ArrayList<>(Math.min(limit, current.size()));
+        while (!heads.isEmpty() && page.size() < limit) {
+            BucketCursor head = heads.poll();
+            if (head.current().getQuantity() >= minQuantity) {
+                page.add(head.current());
+            }
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return page;
+    }
+
+    // Nearest first within radiusKm, same contract as the $nearSphere repository query
+    public List<Donation> findNearby(double lat, double lng, double radiusKm, int minQuantity, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return donationRepository.findByStatusAndQuantityGreaterThanEqualAndLocationNear(
+                    DonationStatus.AVAILABLE, minQuantity, new GeoJsonPoint(lng, lat),
+                    new Distance(radiusKm, Metrics.KILOMETERS), PageRequest.of(0, limit));
+        }
+        return current.grid().nearest(lat, lng, limit, radiusKm, donation -> donation.getQuantity() >= minQuantity);
+    }
+
+    public Stream<Donation> streamLive(String city, String district, int minQuantity) {
+        if (snapshot == null) {
+            return donationRepository.streamLive(city, district, minQuantity);
+        }
+        return findLivePage(city, district, minQuantity, null, Integer.MAX_VALUE).stream();
+    }
+
+    // Synchronous, so the request that changed a donation returns only after the index reflects it;
+    // ordered first so listeners that read the index see the change
+    @Order(0)
+    @EventListener
+    public void onDonationEvent(DonationEvent event) {
+        apply(event.donation());
+    }
+
+    // A whole batch under one lock, touching each affected bucket once
+    @Order(0)
+    @EventListener
+    public void onDonationBatch(DonationBatchEvent event) {
+        applyAll(event.donations());
+    }
+
+    @Scheduled(fixedDelayString = "${donations.liveIndex.resyncMs:30000}")
+    public void resync() {
+        writeLock.lock();
+        try {
+            changesDuringResync = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+        long start = System.nanoTime();
+        try {
+            Snapshot fresh;
+            try (Stream<Donation> donations = donationRepository.streamLive("", "", Integer.MIN_VALUE)) {
+                fresh = Snapshot.of(donations.toList());
+            }
+            writeLock.lock();
+            try {
+                for (Donation change : changesDuringResync) {
+                    // The read may already hold a newer version than a change recorded while it ran
+                    if (!isStale(fresh, change)) {
+                        fresh = fresh.with(change);
+                    }
+                }
+                snapshot = fresh;
+            } finally {
+                writeLock.unlock();
+            }
+            resyncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (DataAccessException e) {
+            // Keep serving the last snapshot; the next run tries again
+            log.warn("Could not resync the live donation index: {}", e.getMessage());
+        } finally {
+            writeLock.lock();
+            try {
+                changesDuringResync = null;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    void apply(Donation donation) {
+        if (donation != null) {
+            applyAll(List.of(donation));
+        }
+    }
+
+    // Upserts each donation while it is AVAILABLE, removes it otherwise. Events from different threads
+    // can arrive out of order, so one older than what the index already holds is dropped
+    void applyAll(List<Donation> donations) {
+        List<Donation> changes = donations.stream()
+                .filter(donation -> donation != null && donation.getId() != null && donation.getCreatedAt() != null)
+                .toList();
+        if (changes.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (changesDuringResync != null) {
+                changesDuringResync.addAll(changes);
+            }
+            Snapshot current = snapshot;
+            if (current != null) {
+                snapshot = current.withAll(changes.stream().filter(donation -> !isStale(current, donation)).toList());
+            }
+            for (Donation donation : changes) {
+                if (donation.getVersion() == null) {
+                    continue;
+                }
+                if (donation.getStatus() == DonationStatus.AVAILABLE) {
+                    removedVersions.remove(donation.getId());
+                } else {
+                    removedVersions.merge(donation.getId(), donation.getVersion(), Math::max);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Caller holds writeLock; unversioned (legacy) donations are always applied
+    private boolean isStale(Snapshot target, Donation donation) {
+        Long incoming = donation.getVersion();
+        if (incoming == null) {
+            return false;
+        }
+        Long removed = removedVersions.get(donation.getId());
+        Long indexed = target.versionOf(donation);
+        return (removed != null && incoming < removed) || (indexed != null && incoming < indexed);
+    }
+
+    // Index of the first donation strictly after the cursor in NEWEST_FIRST order
+    private static int firstAfter(Donation[] bucket, DonationCursor after) {
+        int low = 0;
+        int high = bucket.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (isAtOrBefore(bucket[mid], after)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isAtOrBefore(Donation donation, DonationCursor cursor) {
+        // An undated cursor sorts after every indexed donation, which all have createdAt
+        if (cursor.getCreatedAt() == null) {
+            return true;
+        }
+        int byTime = donation.getCreatedAt().compareTo(cursor.getCreatedAt());
+        return byTime > 0 || (byTime == 0 && donation.getId().compareTo(cursor.getId()) >= 0);
+    }
+
+    private static String cityKey(Donation donation) {
+        return donation.getCityKey() != null ? donation.getCityKey() : Donation.normalizeKey(donation.getCity());
+    }
+
+    private static String districtKey(Donation donation) {
+        return donation.getDistrictKey() != null ? donation.getDistrictKey() : Donation.normalizeKey(donation.getDistrict());
+    }
+
+    private static boolean isLocated(Donation donation) {
+        return donation.getLatitude() != null && donation.getLongitude() != null;
+    }
+
+    // Prefix range of a sorted key set, matching the anchored regex the repository uses
+    private static <V> NavigableMap<String, V> withPrefix(NavigableMap<String, V> map, String prefix) {
+        return prefix.isEmpty() ? map : map.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
+    // Listing buckets, unlocated donations by cityKey and the grid of located ones, replaced together
+    private record Snapshot(NavigableMap<String, NavigableMap<String, Donation[]>> buckets,
+                            Map<String, Donation[]> unlocated, GeoGridIndex<Donation> grid, int size) {
+
+        static Snapshot of(Collection<Donation> donations) {
+            NavigableMap<String, NavigableMap<String, List<Donation>>> grouped = new TreeMap<>();
+            Map<String, List<Donation>> unlocatedByCity = new HashMap<>();
+            GeoGridIndex.Editor<Donation> grid = new GeoGridIndex<Donation>(GRID_CELL_DEGREES).edit();
+            for (Donation donation : donations) {
+                if (donation.getId() != null && donation.getCreatedAt() != null) {
+                    grouped.computeIfAbsent(cityKey(donation), key -> new TreeMap<>())
+                            .computeIfAbsent(districtKey(donation), key -> new ArrayList<>())
+                            .add(donation);
+                    if (isLocated(donation)) {
+                        grid.put(donation.getId(), donation.getLatitude(), donation.getLongitude(), donation);
+                    } else {
+                        unlocatedByCity.computeIfAbsent(cityKey(donation), key -> new ArrayList<>()).add(donation);
+                    }
+                }
+            }
+            NavigableMap<String, NavigableMap<String, Donation[]>> buckets = new TreeMap<>();
+            int size = 0;
+            for (var city : grouped.entrySet()) {
+                NavigableMap<String, Donation[]> districts = new TreeMap<>();
+                for (var district : city.getValue().entrySet()) {
+                    Donation[] bucket = district.getValue().toArray(Donation[]::new);
+                    Arrays.sort(bucket, NEWEST_FIRST);
+                    districts.put(district.getKey(), bucket);
+                    size += bucket.length;
+                }
+                buckets.put(city.getKey(), Collections.unmodifiableNavigableMap(districts));
+            }
+            Map<String, Donation[]> unlocated = new HashMap<>();
+            unlocatedByCity.forEach((city, list) -> unlocated.put(city, list.toArray(Donation[]::new)));
+            return new Snapshot(Collections.unmodifiableNavigableMap(buckets), Collections.unmodifiableMap(unlocated),
+                    grid.build(), size);
+        }
+
+        Snapshot with(Donation donation) {
+            return withAll(List.of(donation));
+        }
+
+        // Copy-on-write: only the touched city maps, district buckets, unlocated lists and grid cells
+        // are rebuilt, each once per batch; the same snapshot comes back when nothing indexed changes
+        Snapshot withAll(Collection<Donation> donations) {
+            Map<String, Map<String, Map<String, Donation>>> changes = new HashMap<>();
+            for (Donation donation : donations) {
+                changes.computeIfAbsent(cityKey(donation), key -> new HashMap<>())
+                        .computeIfAbsent(districtKey(donation), key -> new HashMap<>())
+                        .put(donation.getId(), donation);
+            }
+
+            NavigableMap<String, NavigableMap<String, Donation[]>> newBuckets = null;
+            Map<String, Donation[]> newUnlocated = null;
+            GeoGridIndex.Editor<Donation> newGrid = grid.edit();
+            int newSize = size;
+            for (var city : changes.entrySet()) {
+                NavigableMap<String, Donation[]> districts = buckets.getOrDefault(city.getKey(), Collections.emptyNavigableMap());
+                NavigableMap<String, Donation[]> newDistricts = null;
+                Map<String, Donation> cityChanges = new HashMap<>();
+                for (var district : city.getValue().entrySet()) {
+                    Donation[] bucket = districts.getOrDefault(district.getKey(), new Donation[0]);
+                    Map<String, Donation> byId = district.getValue();
+                    List<Donation> updated = new ArrayList<>(bucket.length + byId.size());
+                    for (Donation existing : bucket) {
+                        Donation change = byId.get(existing.getId());
+                        if (change == null) {
+                            updated.add(existing);
+                        } else if (isLocated(existing)) {
+                            newGrid.remove(existing.getId(), existing.getLatitude(), existing.getLongitude());
+                        }
+                    }
+                    for (Donation change : byId.values()) {
+                        if (change.getStatus() == DonationStatus.AVAILABLE) {
+                            updated.add(change);
+                            if (isLocated(change)) {
+                                newGrid.put(change.getId(), change.getLatitude(), change.getLongitude(), change);
+                            }
+                        }
+                    }
+                    if (updated.isEmpty() && bucket.length == 0) {
+                        continue;
+                    }
+                    cityChanges.putAll(byId);
+                    updated.sort(NEWEST_FIRST);
+
+                    if (newDistricts == null) {
+                        newDistricts = new TreeMap<>(districts);
+                    }
+                    if (updated.isEmpty()) {
+                        newDistricts.remove(district.getKey());
+                    } else {
+                        newDistricts.put(district.getKey(), updated.toArray(Donation[]::new));
+                    }
+                    newSize += updated.size() - bucket.length;
+                }
+                if (newDistricts == null) {
+                    continue;
+                }
+                if (newBuckets == null) {
+                    newBuckets = new TreeMap<>(buckets);
+                    newUnlocated = new HashMap<>(unlocated);
+                }
+                if (newDistricts.isEmpty()) {
+                    newBuckets.remove(city.getKey());
+                } else {
+                    newBuckets.put(city.getKey(), Collections.unmodifiableNavigableMap(newDistricts));
+                }
+                updateUnlocated(newUnlocated, city.getKey(), cityChanges);
+            }
+            if (newBuckets == null) {
+                return this;
+            }
+            return new Snapshot(Collections.unmodifiableNavigableMap(newBuckets), Collections.unmodifiableMap(newUnlocated),
+                    newGrid.build(), newSize);
+        }
+
+        private static void updateUnlocated(Map<String, Donation[]> unlocated, String cityKey, Map<String, Donation> changes) {
+            Donation[] current = unlocated.getOrDefault(cityKey, new Donation[0]);
+            List<Donation> updated = new ArrayList<>(current.length + changes.size());
+            for (Donation existing : current) {
+                if (!changes.containsKey(existing.getId())) {
+                    updated.add(existing);
+                }
+            }
+            for (Donation change : changes.values()) {
+                if (change.getStatus() == DonationStatus.AVAILABLE && !isLocated(change)) {
+                    updated.add(change);
+                }
+            }
+            if (updated.isEmpty()) {
+                unlocated.remove(cityKey);
+            } else {
+                unlocated.put(cityKey, updated.toArray(Donation[]::new));
+            }
+        }
+
+        // The indexed copy of this donation, null when it is not live. createdAt and id never change,
+        // so the copy sits where the donation itself sorts in its bucket
+        Donation find(Donation donation) {
+            Donation[] bucket = buckets.getOrDefault(cityKey(donation), Collections.emptyNavigableMap())
+                    .get(districtKey(donation));
+            if (bucket == null || donation.getId() == null || donation.getCreatedAt() == null) {
+                return null;
+            }
+            int position = Arrays.binarySearch(bucket, donation, NEWEST_FIRST);
+            return position >= 0 ? bucket[position] : null;
+        }
+
+        // Version of the indexed copy of this donation, null when it is not indexed or unversioned
+        Long versionOf(Donation donation) {
+            Donation existing = find(donation);
+            return existing == null ? null : existing.getVersion();
+        }
+
+        List<Donation[]> matching(String cityPrefix, String districtPrefix) {
+            List<Donation[]> matches = new ArrayList<>();
+            for (NavigableMap<String, Donation[]> districts : withPrefix(buckets, cityPrefix).values()) {
+                matches.addAll(withPrefix(districts, districtPrefix).values());
+            }
+            return matches;
+        }
+    }
+
+    private static final class BucketCursor {
+
+        private final Donation[] bucket;
+        private int position;
+
+        BucketCursor(Donation[] bucket, int position) {
+            this.bucket = bucket;
+            this.position = position;
+        }
+
+        Donation current() {
+            return bucket[position];
+        }
+
+        boolean advance() {
+            return ++position < bucket.length;
+        }
+    }
+}
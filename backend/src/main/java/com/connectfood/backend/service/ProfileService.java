@@ -1,28 +1,45 @@
 package com.connectfood.backend.service;
 
+import com.connectfood.backend.dto.DonationStats;
 import com.connectfood.backend.dto.UserProfileDTO;
 import com.connectfood.backend.model.Donor;
 import com.connectfood.backend.model.Recipient;
-import com.connectfood.backend.repository.DonorRepository;
-import com.connectfood.backend.repository.RecipientRepository;
-import com.connectfood.backend.repository.DonationRepository;
+import com.connectfood.backend.model.Role;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class ProfileService {
 
+    private static final List<String> DONOR_EDITABLE = List.of("name", "phoneNumber", "address", "profilePicture");
+    private static final List<String> DONOR_REQUIRED = List.of("name", "phoneNumber", "address");
+    private static final List<String> RECIPIENT_EDITABLE =
+            List.of("name", "organizationName", "licenseNumber", "phoneNumber", "address", "profilePicture");
+    private static final List<String> RECIPIENT_REQUIRED = List.of("name", "organizationName", "licenseNumber");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Autowired
-    DonorRepository donorRepository;
+    private UserStatsService userStatsService;
 
     @Autowired
-    RecipientRepository recipientRepository;
+    private UserLookupService userLookupService;
 
     @Autowired
-    private DonationRepository donationRepository;
+    private LastSeenRecorder lastSeenRecorder;
 
     public UserProfileDTO getUserProfile(String email, String role) {
         if ("donor".equals(role)) {
@@ -34,7 +51,7 @@ public class ProfileService {
     }
 
     private UserProfileDTO getDonorProfile(String email) {
-        Optional<Donor> donorOpt = donorRepository.findByEmail(email);
+        Optional<Donor> donorOpt = userLookupService.findDonor(email);
         if (donorOpt.isEmpty()) {
             return null;
         }
@@ -51,26 +68,17 @@ public class ProfileService {
         profile.setProfilePicture(donor.getProfilePicture());
         profile.setAddress(donor.getAddress());
         profile.setCreatedAt(donor.getCreatedAt());
-        profile.setLastLoginAt(donor.getLastLoginAt());
+        profile.setLastLoginAt(lastSeenRecorder.lastSeen(email, Role.DONOR));
         profile.setProfileComplete(donor.isProfileComplete());
         
         // Statistics
-        long totalDonations = donationRepository.countByDonorEmail(email);
-        long totalItems = donationRepository.findByDonorEmail(email)
-                .stream()
-                .mapToLong(donation -> donation.getQuantity())
-                .sum();
-        long activeDonations = donationRepository.countByDonorEmailAndCollectedFalse(email);
-        
-        profile.setTotalDonations(totalDonations);
-        profile.setTotalItems(totalItems);
-        profile.setActiveDonations(activeDonations);
+        applyStats(profile, userStatsService.donorStats(email));
         
         return profile;
     }
 
     private UserProfileDTO getRecipientProfile(String email) {
-        Optional<Recipient> recipientOpt = recipientRepository.findByEmail(email);
+        Optional<Recipient> recipientOpt = userLookupService.findRecipient(email);
         if (recipientOpt.isEmpty()) {
             return null;
         }
@@ -87,73 +95,84 @@ public class ProfileService {
         profile.setProfilePicture(recipient.getProfilePicture());
         profile.setAddress(recipient.getAddress());
         profile.setCreatedAt(recipient.getCreatedAt());
-        profile.setLastLoginAt(recipient.getLastLoginAt());
+        profile.setLastLoginAt(lastSeenRecorder.lastSeen(email, Role.RECIPIENT));
         profile.setProfileComplete(recipient.isProfileComplete());
         profile.setLicenseNumber(recipient.getLicenseNumber());
         
-        // Statistics
-        long totalDonations = donationRepository.countByCollectedTrue();
-        long totalItems = donationRepository.findByCollectedTrue()
-                .stream()
-                .mapToLong(donation -> donation.getQuantity())
-                .sum();
-        long activeDonations = donationRepository.countByCollectedFalse();
-        
-        profile.setTotalDonations(totalDonations);
-        profile.setTotalItems(totalItems);
-        profile.setActiveDonations(activeDonations);
+        // Statistics: donations this recipient collected or currently holds
+        applyStats(profile, userStatsService.recipientStats(email));
         
         return profile;
     }
 
+    // Counters only, without building the full profile; null if the user does not exist
+    public DonationStats getUserStats(String email, String role) {
+        if ("donor".equals(role)) {
+            return userStatsService.donorStats(email);
+        } else if ("recipient".equals(role)) {
+            return userLookupService.findRecipient(email)
+                    .map(recipient -> userStatsService.recipientStats(email))
+                    .orElse(null);
+        }
+        return null;
+    }
+
+    private void applyStats(UserProfileDTO profile, DonationStats stats) {
+        profile.setTotalDonations(stats.getTotalDonations());
+        profile.setTotalItems(stats.getTotalItems());
+        profile.setActiveDonations(stats.getActiveDonations());
+    }
+
+    // Buffered and written in batches; see LastSeenRecorder
     public void updateLastLogin(String email, String role) {
         if ("donor".equals(role)) {
-            donorRepository.findByEmail(email).ifPresent(donor -> {
-                donor.setLastLoginAt(new java.util.Date());
-                donorRepository.save(donor);
-            });
+            lastSeenRecorder.record(email, Role.DONOR);
         } else if ("recipient".equals(role)) {
-            recipientRepository.findByEmail(email).ifPresent(recipient -> {
-                recipient.setLastLoginAt(new java.util.Date());
-                recipientRepository.save(recipient);
-            });
+            lastSeenRecorder.record(email, Role.RECIPIENT);
         }
     }
 
     public boolean updateDonorProfile(String email, Map<String, Object> updates) {
-        Optional<Donor> donorOpt = donorRepository.findByEmail(email);
-        if (donorOpt.isEmpty()) return false;
-        Donor donor = donorOpt.get();
-        if (updates.containsKey("name")) donor.setName((String) updates.get("name"));
-        if (updates.containsKey("phoneNumber")) donor.setPhoneNumber((String) updates.get("phoneNumber"));
-        if (updates.containsKey("address")) donor.setAddress((String) updates.get("address"));
-        if (updates.containsKey("profilePicture")) donor.setProfilePicture((String) updates.get("profilePicture"));
-        
-        // Check if all required fields are present and not empty
-        boolean profileComplete = donor.getName() != null && !donor.getName().trim().isEmpty()
-            && donor.getPhoneNumber() != null && !donor.getPhoneNumber().trim().isEmpty()
-            && donor.getAddress() != null && !donor.getAddress().trim().isEmpty();
-        
-        donor.setProfileComplete(profileComplete);
-        donorRepository.save(donor);
+        boolean profileComplete = updateProfile(email, updates, DONOR_EDITABLE, DONOR_REQUIRED, Donor.class);
+        userLookupService.evictDonor(email);
         return profileComplete;
     }
 
     public boolean updateRecipientProfile(String email, Map<String, Object> updates) {
-        Optional<Recipient> recipientOpt = recipientRepository.findByEmail(email);
-        if (recipientOpt.isEmpty()) return false;
-        Recipient recipient = recipientOpt.get();
-        if (updates.containsKey("name")) recipient.setName((String) updates.get("name"));
-        if (updates.containsKey("organizationName")) recipient.setOrganizationName((String) updates.get("organizationName"));
-        if (updates.containsKey("licenseNumber")) recipient.setLicenseNumber((String) updates.get("licenseNumber"));
-        if (updates.containsKey("phoneNumber")) recipient.setPhoneNumber((String) updates.get("phoneNumber"));
-        if (updates.containsKey("address")) recipient.setAddress((String) updates.get("address"));
-        if (updates.containsKey("profilePicture")) recipient.setProfilePicture((String) updates.get("profilePicture"));
-        boolean profileComplete = recipient.getName() != null && !recipient.getName().trim().isEmpty()
-            && recipient.getOrganizationName() != null && !recipient.getOrganizationName().trim().isEmpty()
-            && recipient.getLicenseNumber() != null && !recipient.getLicenseNumber().trim().isEmpty();
-        recipient.setProfileComplete(profileComplete);
-        recipientRepository.save(recipient);
+        boolean profileComplete = updateProfile(email, updates, RECIPIENT_EDITABLE, RECIPIENT_REQUIRED, Recipient.class);
+        userLookupService.evictRecipient(email);
         return profileComplete;
     }
+
+    // One findAndModify: $set only the edited fields, then derive profileComplete from the updated document
+    private boolean updateProfile(String email, Map<String, Object> updates, List<String> editable,
+                                  List<String> required, Class<?> type) {
+        Document edits = new Document();
+        for (String field : editable) {
+            if (updates.containsKey(field)) {
+                // $literal so a value like "$email" is stored as text rather than read as a field path
+                edits.append(field, new Document("$literal", (String) updates.get(field)));
+            }
+        }
+        Document completeness = new Document("profileComplete",
+                new Document("$and", required.stream().map(ProfileService::nonBlank).toList()));
+
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (!edits.isEmpty()) {
+            stages.add(context -> new Document("$set", edits));
+        }
+        stages.add(context -> new Document("$set", completeness));
+
+        Query query = Query.query(Criteria.where("email").is(email));
+        query.fields().include("profileComplete");
+        Document updated = mongoTemplate.findAndModify(query, AggregationUpdate.from(stages),
+                FindAndModifyOptions.options().returnNew(true), Document.class, mongoTemplate.getCollectionName(type));
+        return updated != null && Boolean.TRUE.equals(updated.getBoolean("profileComplete"));
+    }
+
+    // Same rule the Java code used: present and not just whitespace
+    private static Document nonBlank(String field) {
+        return new Document("$gt", List.of(new Document("$strLenCP", new Document("$trim",
+                new Document("input", new Document("$ifNull", List.of("$" + field, ""))))), 0));
+    }
 } 
\ No newline at end of file
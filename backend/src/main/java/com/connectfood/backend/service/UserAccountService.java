@@ -0,0 +1,61 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.model.Donor;
+import com.connectfood.backend.model.Recipient;
+import com.connectfood.backend.model.Role;
+import com.connectfood.backend.model.UserAccount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+/**
+ * Google login as two upserts: claim the email in user_accounts, then create or refresh the
+ * donor/recipient document. The role conflict is settled by the first write, so a rejected login
+ * never touches the donors or recipients collections.
+ */
+@Service
+public class UserAccountService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    // Returns the role the email is registered under; when that is not the requested role nothing was written
+    public Role login(String email, String name, String profilePicture, Role role) {
+        Date now = new Date();
+        UserAccount account = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(email)),
+                new Update().setOnInsert("role", role).setOnInsert("createdAt", now),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                UserAccount.class);
+        if (account.getRole() != role) {
+            return account.getRole();
+        }
+
+        // Idempotent, so a retry after a failure here completes a half-finished first login
+        Update profile = new Update()
+                .setOnInsert("name", name)
+                .setOnInsert("role", role)
+                .setOnInsert("createdAt", now)
+                .setOnInsert("profileComplete", false)
+                .set("profilePicture", profilePicture)
+                .set("lastLoginAt", now);
+        Query byEmail = Query.query(Criteria.where("email").is(email));
+        if (role == Role.DONOR) {
+            mongoTemplate.upsert(byEmail, profile, Donor.class);
+            userLookupService.evictDonor(email);
+        } else {
+            mongoTemplate.upsert(byEmail, profile, Recipient.class);
+            userLookupService.evictRecipient(email);
+        }
+        return role;
+    }
+}
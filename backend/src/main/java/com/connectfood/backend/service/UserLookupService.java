@@ -0,0 +1,49 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.model.Donor;
+import com.connectfood.backend.model.Recipient;
+import com.connectfood.backend.repository.DonorRepository;
+import com.connectfood.backend.repository.RecipientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Read-through cache of users by email for the request hot paths. Cached documents are shared,
+ * so callers must treat them as read-only; code that modifies a user loads it from the repository
+ * and calls the matching evict method after writing. Misses are not cached, so a newly registered
+ * user is visible immediately.
+ */
+@Service
+public class UserLookupService {
+
+    public static final String DONORS_BY_EMAIL = "donorsByEmail";
+    public static final String RECIPIENTS_BY_EMAIL = "recipientsByEmail";
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    @Autowired
+    private RecipientRepository recipientRepository;
+
+    @Cacheable(cacheNames = DONORS_BY_EMAIL, unless = "#result == null")
+    public Optional<Donor> findDonor(String email) {
+        return donorRepository.findByEmail(email);
+    }
+
+    @Cacheable(cacheNames = RECIPIENTS_BY_EMAIL, unless = "#result == null")
+    public Optional<Recipient> findRecipient(String email) {
+        return recipientRepository.findByEmail(email);
+    }
+
+    @CacheEvict(cacheNames = DONORS_BY_EMAIL)
+    public void evictDonor(String email) {
+    }
+
+    @CacheEvict(cacheNames = RECIPIENTS_BY_EMAIL)
+    public void evictRecipient(String email) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.dto.DonationStats;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import com.connectfood.backend.model.UserStats;
+import com.connectfood.backend.repository.DonationRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link UserStats} counters. Each donation state change is a single $inc upsert
+ * (or one unordered bulk write when two users are affected), so reading stats is a primary-key
+ * lookup. Counter updates never fail the request that triggered them; {@link #reconcile()}
+ * repairs any drift by rebuilding every counter server-side from the donations collection.
+ */
+@Service
+public class UserStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatsService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DonationRepository donationRepository;
+
+    public DonationStats donorStats(String email) {
+        UserStats stats = mongoTemplate.findById(UserStats.donorId(email), UserStats.class);
+        // No counters yet (never donated, or not reconciled yet): fall back to the indexed aggregation
+        return stats != null ? toDto(stats) : donationRepository.donorStats(email);
+    }
+
+    public DonationStats recipientStats(String email) {
+        UserStats stats = mongoTemplate.findById(UserStats.recipientId(email), UserStats.class);
+        return stats != null ? toDto(stats) : donationRepository.recipientStats(email);
+    }
+
+    public void recordDonationCreated(Donation donation) {
+        apply(List.of(new CounterUpdate(UserStats.donorId(donation.getDonorEmail()), 1, donation.getQuantity(), 1)));
+    }
+
+    // A batch of new donations, one $inc per donor
+    public void recordDonationsCreated(List<Donation> donations) {
+        Map<String, List<Donation>> perDonor = donations.stream()
+                .filter(donation -> donation.getDonorEmail() != null)
+                .collect(Collectors.groupingBy(Donation::getDonorEmail));
+        if (perDonor.isEmpty()) {
+            return;
+        }
+        apply(perDonor.entrySet().stream()
+                .map(entry -> new CounterUpdate(UserStats.donorId(entry.getKey()), entry.getValue().size(),
+                        entry.getValue().stream().mapToLong(Donation::getQuantity).sum(), entry.getValue().size()))
+                .toList());
+    }
+
+    public void recordCollectionInitiated(Donation donation) {
+        apply(List.of(new CounterUpdate(UserStats.recipientId(donation.getInitiatedByEmail()), 0, 0, 1)));
+    }
+
+    // Batch reservations, one $inc per recipient
+    public void recordCollectionsInitiated(List<Donation> donations) {
+        Map<String, Long> perRecipient = donations.stream()
+                .filter(donation -> donation.getInitiatedByEmail() != null)
+                .collect(Collectors.groupingBy(Donation::getInitiatedByEmail, Collectors.counting()));
+        if (perRecipient.isEmpty()) {
+            return;
+        }
+        apply(perRecipient.entrySet().stream()
+                .map(entry -> new CounterUpdate(UserStats.recipientId(entry.getKey()), 0, 0, entry.getValue()))
+                .toList());
+    }
+
+    // Batch collections: one $inc per collecting recipient and one per donor, in a single bulk write
+    public void recordDonationsCollected(List<Donation> donations) {
+        List<CounterUpdate> updates = new ArrayList<>();
+        donations.stream()
+                .filter(donation -> donation.getInitiatedByEmail() != null)
+                .collect(Collectors.groupingBy(Donation::getInitiatedByEmail))
+                .forEach((recipient, collected) -> updates.add(new CounterUpdate(UserStats.recipientId(recipient),
+                        collected.size(), collected.stream().mapToLong(Donation::getQuantity).sum(), -collected.size())));
+        donations.stream()
+                .filter(donation -> donation.getDonorEmail() != null)
+                .collect(Collectors.groupingBy(Donation::getDonorEmail, Collectors.counting()))
+                .forEach((donor, count) -> updates.add(new CounterUpdate(UserStats.donorId(donor), 0, 0, -count)));
+        if (!updates.isEmpty()) {
+            apply(updates);
+        }
+    }
+
+    public void recordDonationCollected(Donation donation) {
+        apply(List.of(
+                new CounterUpdate(UserStats.recipientId(donation.getInitiatedByEmail()), 1, donation.getQuantity(), -1),
+                new CounterUpdate(UserStats.donorId(donation.getDonorEmail()), 0, 0, -1)));
+    }
+
+    // A cancelled donation leaves its donor's active count, and its recipient's if it was reserved
+    public void recordDonationCancelled(Donation donation) {
+        CounterUpdate donor = new CounterUpdate(UserStats.donorId(donation.getDonorEmail()), 0, 0, -1);
+        if (donation.getInitiatedByEmail() != null) {
+            apply(List.of(donor, new CounterUpdate(UserStats.recipientId(donation.getInitiatedByEmail()), 0, 0, -1)));
+        } else {
+            apply(List.of(donor));
+        }
+    }
+
+    // Expired donations leave their donor's active count, one $inc per donor
+    public void recordDonationsExpired(List<Donation> donations) {
+        Map<String, Long> expiredPerDonor = donations.stream()
+                .filter(donation -> donation.getDonorEmail() != null)
+                .collect(Collectors.groupingBy(Donation::getDonorEmail, Collectors.counting()));
+        if (expiredPerDonor.isEmpty()) {
+            return;
+        }
+        apply(expiredPerDonor.entrySet().stream()
+                .map(entry -> new CounterUpdate(UserStats.donorId(entry.getKey()), 0, 0, -entry.getValue()))
+                .toList());
+    }
+
+    // Timed-out reservations no longer count as held by their recipient
+    public void recordReservationsReleased(List<String> recipientEmails) {
+        Map<String, Long> releasedPerRecipient = recipientEmails.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        if (releasedPerRecipient.isEmpty()) {
+            return;
+        }
+        apply(releasedPerRecipient.entrySet().stream()
+                .map(entry -> new CounterUpdate(UserStats.recipientId(entry.getKey()), 0, 0, -entry.getValue()))
+                .toList());
+    }
+
+    // Rebuilds all counters with two $group + $merge pipelines; nothing is pulled into the JVM. $merge
+    // only writes groups that still exist, so every stats document the run did not stamp with its
+    // token is zeroed afterwards, unless a counter update created or touched it during the run
+    @Scheduled(cron = "${stats.reconcile.cron:0 30 3 * * *}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        String reconcileToken = new ObjectId().toHexString();
+        MergeOperation intoStats = Aggregation.merge()
+                .intoCollection("user_stats")
+                .on("_id")
+                .whenMatched(MergeOperation.WhenDocumentsMatch.replaceDocument())
+                .whenDocumentsDontMatch(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                .build();
+
+        mongoTemplate.aggregate(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("donorEmail").ne(null)),
+                Aggregation.group("donorEmail")
+                        .count().as("totalDonations")
+                        .sum("quantity").as("totalItems")
+                        .sum(DonationStatus.countWhen(DonationStatus.AVAILABLE, DonationStatus.RESERVED)).as("activeDonations"),
+                context -> keyed("donor:", reconcileToken),
+                intoStats), Donation.class, Document.class);
+
+        mongoTemplate.aggregate(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("initiatedByEmail").ne(null)),
+                Aggregation.group("initiatedByEmail")
+                        .sum(DonationStatus.countWhen(DonationStatus.COLLECTED)).as("totalDonations")
+                        .sum(ConditionalOperators.when(Criteria.where("status").is(DonationStatus.COLLECTED.name()))
+                                .thenValueOf("quantity").otherwise(0)).as("totalItems")
+                        .sum(DonationStatus.countWhen(DonationStatus.RESERVED)).as("activeDonations"),
+                context -> keyed("recipient:", reconcileToken),
+                intoStats), Donation.class, Document.class);
+
+        Query unmatched = new Query(new Criteria().andOperator(
+                Criteria.where("reconcileToken").ne(reconcileToken).and("updatedAt").lt(new Date(start)),
+                new Criteria().orOperator(Criteria.where("totalDonations").ne(0),
+                        Criteria.where("totalItems").ne(0), Criteria.where("activeDonations").ne(0))));
+        long zeroed = mongoTemplate.updateMulti(unmatched, new Update()
+                .set("totalDonations", 0L)
+                .set("totalItems", 0L)
+                .set("activeDonations", 0L)
+                .currentDate("updatedAt"), UserStats.class).getModifiedCount();
+
+        log.info("Reconciled user stats in {} ms, zeroed {} with no donations left", System.currentTimeMillis() - start, zeroed);
+    }
+
+    private void apply(List<CounterUpdate> updates) {
+        try {
+            if (updates.size() == 1) {
+                CounterUpdate counter = updates.get(0);
+                mongoTemplate.upsert(counter.query(), counter.update(), UserStats.class);
+                return;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserStats.class);
+            updates.forEach(counter -> bulk.upsert(counter.query(), counter.update()));
+            bulk.execute();
+        } catch (DataAccessException e) {
+            log.warn("Could not update user stats {}: {}", updates, e.getMessage());
+        }
+    }
+
+    private static Document keyed(String prefix, String reconcileToken) {
+        return new Document("$set", new Document("_id", new Document("$concat", List.of(prefix, "$_id")))
+                .append("reconcileToken", reconcileToken)
+                .append("updatedAt", "$$NOW"));
+    }
+
+
+    private record CounterUpdate(String id, long totalDonations, long totalItems, long activeDonations) {
+
+        Query query() {
+            return new Query(Criteria.where("_id").is(id));
+        }
+
+        Update update() {
+            return new Update()
+                    .inc("totalDonations", totalDonations)
+                    .inc("totalItems", totalItems)
+                    .inc("activeDonations", activeDonations)
+                    .currentDate("updatedAt");
+        }
+    }
+
+    private static DonationStats toDto(UserStats stats) {
+        DonationStats dto = new DonationStats();
+        dto.setTotalDonations(stats.getTotalDonations());
+        dto.setTotalItems(stats.getTotalItems());
+        dto.setActiveDonations(stats.getActiveDonations());
+        return dto;
+    }
+}
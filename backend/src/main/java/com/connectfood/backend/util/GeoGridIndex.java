@@ -0,0 +1,317 @@
+package com.connectfood.backend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Immutable in-memory proximity index over lat/lng points. Points are bucketed into fixed-size degree
+ * cells whose packed (row, column) long key indexes an open-addressing table, so a lookup never boxes.
+ * A radius query scans only the cells overlapping the circle's bounding box and checks each point
+ * with the haversine distance; k-nearest widens the radius geometrically until it holds k points.
+ * Changes go through an {@link Editor}, which copies the cell table and only the cells it touches
+ * and builds a new index, so readers share an index without locking and never see a half-applied edit.
+ */
+public final class GeoGridIndex<T> {
+
+    private static final double KM_PER_DEGREE = 111.195;
+
+    private final double cellDegrees;
+    private final int columns;
+    private final CellTable<T> cells;
+    private final int size;
+
+    // An empty index
+    public GeoGridIndex(double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("cellDegrees must be in (0, 90]");
+        }
+        this.cellDegrees = cellDegrees;
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+        this.cells = new CellTable<>();
+        this.size = 0;
+    }
+
+    private GeoGridIndex(GeoGridIndex<T> base, CellTable<T> cells, int size) {
+        this.cellDegrees = base.cellDegrees;
+        this.columns = base.columns;
+        this.cells = cells;
+        this.size = size;
+    }
+
+    // Starts a set of changes on top of this index, which itself is left unchanged
+    public Editor<T> edit() {
+        return new Editor<>(this);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Points within radiusKm that pass the filter, nearest first
+    public List<T> withinRadius(double lat, double lng, double radiusKm, Predicate<T> filter) {
+        return values(scan(lat, lng, radiusKm, filter));
+    }
+
+    // Calls the visitor with every point within radiusKm and its distance, in no particular order and
+    // without collecting or sorting
+    public void forEachWithinRadius(double lat, double lng, double radiusKm, ObjDoubleConsumer<T> visitor) {
+        visit(lat, lng, radiusKm, visitor);
+    }
+
+    // Up to k points within maxKm that pass the filter, nearest first
+    public List<T> nearest(double lat, double lng, int k, double maxKm, Predicate<T> filter) {
+        if (k <= 0) {
+            return List.of();
+        }
+        double radiusKm = Math.min(maxKm, cellDegrees * KM_PER_DEGREE);
+        while (true) {
+            List<Hit<T>> hits = scan(lat, lng, radiusKm, filter);
+            // Everything within radiusKm was seen, so with k hits the k nearest are among them
+            if (hits.size() >= k || radiusKm >= maxKm) {
+                return values(hits.size() > k ? hits.subList(0, k) : hits);
+            }
+            radiusKm = Math.min(maxKm, radiusKm * 2);
+        }
+    }
+
+    /**
+     * Changes to one index, applied to private copies of the cell table and of each touched cell.
+     * Points are addressed by id within the cell of their coordinates, so moving a point means
+     * removing it at its old coordinates and putting it at the new ones. Not thread-safe, single use.
+     */
+    public static final class Editor<T> {
+
+        private final GeoGridIndex<T> base;
+        private final CellTable<T> cells;
+        // Cells already copied by this edit, which can be changed in place
+        private final Set<Long> owned = new HashSet<>();
+        private int size;
+        private boolean built;
+
+        private Editor(GeoGridIndex<T> base) {
+            this.base = base;
+            this.cells = base.cells.copy();
+            this.size = base.size;
+        }
+
+        // Inserts the point, or replaces the point with this id at the same coordinates' cell
+        public Editor<T> put(String id, double lat, double lng, T value) {
+            List<Point<T>> cell = ownedCell(base.cellKey(lat, lng));
+            Point<T> point = new Point<>(id, lat, lng, value);
+            int index = indexOf(cell, id);
+            if (index < 0) {
+                cell.add(point);
+                size++;
+            } else {
+                cell.set(index, point);
+            }
+            return this;
+        }
+
+        // Removes the point with this id from the cell of the given coordinates, if it is there
+        public Editor<T> remove(String id, double lat, double lng) {
+            long key = base.cellKey(lat, lng);
+            List<Point<T>> cell = cells.get(key);
+            if (cell == null || indexOf(cell, id) < 0) {
+                return this;
+            }
+            cell = ownedCell(key);
+            cell.remove(indexOf(cell, id));
+            size--;
+            return this;
+        }
+
+        public GeoGridIndex<T> build() {
+            if (built) {
+                throw new IllegalStateException("Editor already built");
+            }
+            built = true;
+            return owned.isEmpty() ? base : new GeoGridIndex<>(base, cells, size);
+        }
+
+        private List<Point<T>> ownedCell(long key) {
+            if (built) {
+                throw new IllegalStateException("Editor already built");
+            }
+            List<Point<T>> cell = cells.get(key);
+            if (owned.add(key)) {
+                cell = cell == null ? new ArrayList<>(4) : new ArrayList<>(cell);
+                cells.put(key, cell);
+            }
+            return cell;
+        }
+
+        private static <T> int indexOf(List<Point<T>> cell, String id) {
+            for (int i = 0; i < cell.size(); i++) {
+                if (cell.get(i).id().equals(id)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private List<Hit<T>> scan(double lat, double lng, double radiusKm, Predicate<T> filter) {
+        List<Hit<T>> hits = new ArrayList<>();
+        visit(lat, lng, radiusKm, (value, distance) -> {
+            if (filter == null || filter.test(value)) {
+                hits.add(new Hit<>(distance, value));
+            }
+        });
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    private void visit(double lat, double lng, double radiusKm, ObjDoubleConsumer<T> visitor) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        // Longitude degrees shrink towards the poles; size the box for the band's worst-case latitude
+        double cos = Math.cos(Math.toRadians(Math.min(90, Math.abs(lat) + latSpan)));
+        double lngSpan = cos < 1e-9 ? 180 : Math.min(180, radiusKm / (KM_PER_DEGREE * cos));
+        int minRow = row(Math.max(-90, lat - latSpan));
+        int maxRow = row(Math.min(90, lat + latSpan));
+        int firstColumn = (int) Math.floor((lng - lngSpan + 180) / cellDegrees);
+        int lastColumn = (int) Math.floor((lng + lngSpan + 180) / cellDegrees);
+        if (lastColumn - firstColumn + 1 >= columns) {
+            firstColumn = 0;
+            lastColumn = columns - 1;
+        }
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                // Wraps across the antimeridian
+                List<Point<T>> cell = cells.get(cellKey(row, Math.floorMod(column, columns)));
+                if (cell == null) {
+                    continue;
+                }
+                for (Point<T> point : cell) {
+                    // Bounding-box reject first, so only corner candidates pay for the trigonometry
+                    double dLng = Math.abs(point.lng() - lng);
+                    if (Math.abs(point.lat() - lat) > latSpan || Math.min(dLng, 360 - dLng) > lngSpan) {
+                        continue;
+                    }
+                    double distance = GeoUtils.distanceKm(lat, lng, point.lat(), point.lng());
+                    if (distance <= radiusKm) {
+                        visitor.accept(point.value(), distance);
+                    }
+                }
+            }
+        }
+    }
+
+    private long cellKey(double lat, double lng) {
+        return cellKey(row(lat), column(lng));
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor((lat + 90) / cellDegrees);
+    }
+
+    private int column(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180) / cellDegrees), columns);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static <T> List<T> values(List<Hit<T>> hits) {
+        List<T> values = new ArrayList<>(hits.size());
+        hits.forEach(hit -> values.add(hit.value()));
+        return values;
+    }
+
+    private record Point<T>(String id, double lat, double lng, T value) {
+    }
+
+    private record Hit<T>(double distanceKm, T value) {
+    }
+
+    /**
+     * Linear-probing long -> cell map. Cells are never removed; an emptied cell stays as an empty
+     * list, which is bounded by the area ever covered and cleared whenever the index is rebuilt.
+     * Only an {@link Editor} writes to a table, and only to its own copy.
+     */
+    private static final class CellTable<T> {
+
+        private long[] keys = new long[64];
+        private List<Point<T>>[] values = newValues(64);
+        private boolean[] used = new boolean[64];
+        private int size;
+
+        List<Point<T>> get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return null;
+        }
+
+        // Inserts or replaces the cell under this key
+        void put(long key, List<Point<T>> cell) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    values[slot] = cell;
+                    return;
+                }
+            }
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            insert(key, cell);
+            size++;
+        }
+
+        // Shares the cells themselves, which the copy must replace rather than change
+        CellTable<T> copy() {
+            CellTable<T> copy = new CellTable<>();
+            copy.keys = keys.clone();
+            copy.values = values.clone();
+            copy.used = used.clone();
+            copy.size = size;
+            return copy;
+        }
+
+        private void insert(long key, List<Point<T>> cell) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = cell;
+            used[slot] = true;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            List<Point<T>>[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = newValues(oldKeys.length * 2);
+            used = new boolean[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> List<Point<T>>[] newValues(int length) {
+            return new List[length];
+        }
+    }
+}
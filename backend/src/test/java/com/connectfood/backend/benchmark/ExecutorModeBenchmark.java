@@ -0,0 +1,177 @@
+package com.connectfood.backend.benchmark;
+
+import com.connectfood.backend.ConnectfoodBackendApplication;
+import com.connectfood.backend.repository.DonationRepository;
+import com.connectfood.backend.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of a burst of concurrent GET /api/donations/my requests against the running
+ * application: real HTTP through Tomcat, the security filter chain (JWT and rate limiting), the
+ * controller and Jackson, with the donation repository replaced by a stand-in that blocks each
+ * call for mongoLatencyMs, as a Mongo round trip would. Compares the default platform worker pool
+ * with threads.virtual.enabled; the "virtual" mode needs a Java 21+ runtime. The HTTP client runs
+ * in the same JVM, so the numbers are only comparable between modes on the same host. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.connectfood.backend.benchmark.ExecutorModeBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExecutorModeBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"2000"})
+    public int concurrentRequests;
+
+    @Param({"10"})
+    public long mongoLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        boolean virtual = "virtual".equals(mode);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21+, running on " + Runtime.version());
+        }
+        context = new SpringApplicationBuilder(ConnectfoodBackendApplication.class, MongoStandIn.class)
+                .properties(Map.ofEntries(
+                        Map.entry("SERVER_PORT", "0"),
+                        // Nothing listens here; only startup checks and scheduled jobs try it, and they tolerate failure
+                        Map.entry("MONGODB_URI", "mongodb://localhost:1/benchmark?serverSelectionTimeoutMS=100"),
+                        Map.entry("MONGODB_MAX_CONNECTIONS", "10"),
+                        Map.entry("MONGODB_MIN_CONNECTIONS", "0"),
+                        Map.entry("MONGODB_MAX_WAIT_TIME", "1000"),
+                        Map.entry("MONGODB_MAX_CONNECTION_LIFE_TIME", "60000"),
+                        Map.entry("MONGO_INDEX_VERIFICATION", "off"),
+                        Map.entry("JWT_SECRET", "benchmark-secret-benchmark-secret-benchmark"),
+                        Map.entry("JWT_EXPIRATION_MS", "3600000"),
+                        Map.entry("GOOGLE_CLIENT_ID", "benchmark"),
+                        Map.entry("RATE_LIMIT_READ_PER_MINUTE", String.valueOf(Integer.MAX_VALUE)),
+                        Map.entry("VIRTUAL_THREADS_ENABLED", String.valueOf(virtual)),
+                        Map.entry("benchmark.mongoLatencyMs", String.valueOf(mongoLatencyMs)),
+                        Map.entry("logging.level.root", "warn")))
+                .run();
+
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        String token = context.getBean(JwtUtil.class).generateToken("donor@example.com", "donor");
+        clientExecutor = Executors.newFixedThreadPool(4);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/donations/my?limit=10"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        clientExecutor.shutdownNow();
+    }
+
+    // One op is the whole burst, so ops/s times concurrentRequests gives requests/s
+    @Benchmark
+    public int burst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            int status = response.join().statusCode();
+            if (status != 200) {
+                throw new IllegalStateException("Request failed with HTTP " + status);
+            }
+            ok++;
+        }
+        return ok;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ExecutorModeBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // Not a @Configuration, so component scanning of the test classpath never picks it up
+    static class MongoStandIn {
+
+        // Every repository call parks its thread for the configured latency, then finds nothing
+        @Bean
+        @Primary
+        DonationRepository blockingDonationRepository(@Value("${benchmark.mongoLatencyMs}") long latencyMs) {
+            return (DonationRepository) Proxy.newProxyInstance(DonationRepository.class.getClassLoader(),
+                    new Class<?>[] {DonationRepository.class}, (proxy, method, args) -> {
+                        if (method.getDeclaringClass() == Object.class) {
+                            return switch (method.getName()) {
+                                case "equals" -> proxy == args[0];
+                                case "hashCode" -> System.identityHashCode(proxy);
+                                default -> "BlockingDonationRepository";
+                            };
+                        }
+                        Thread.sleep(latencyMs);
+                        return empty(method.getReturnType());
+                    });
+        }
+
+        private static Object empty(Class<?> type) {
+            if (List.class.isAssignableFrom(type) || type == Iterable.class) {
+                return List.of();
+            }
+            if (type == Stream.class) {
+                return Stream.empty();
+            }
+            if (type == Optional.class) {
+                return Optional.empty();
+            }
+            if (type == long.class) {
+                return 0L;
+            }
+            if (type == boolean.class) {
+                return false;
+            }
+            return null;
+        }
+    }
+}
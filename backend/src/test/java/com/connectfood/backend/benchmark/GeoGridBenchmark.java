@@ -0,0 +1,121 @@
+package com.connectfood.backend.benchmark;
+
+import com.connectfood.backend.util.GeoGridIndex;
+import com.connectfood.backend.util.GeoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Proximity queries over live points spread across a metro-sized area (about 110 x 110 km): the
+ * nearest-first /live search (k nearest within 10 km) and a plain 5 km radius query on the grid,
+ * with a full linear scan as the baseline. Also measures one move (remove and put of an existing id in a single edit). Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.connectfood.backend.benchmark.GeoGridBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoGridBenchmark {
+
+    private static final double MIN_LAT = 18.0;
+    private static final double MIN_LNG = 73.3;
+    private static final double SPAN_DEGREES = 1.0;
+    private static final int PROBES = 1024;
+
+    @Param({"100000", "500000"})
+    public int points;
+
+    @Param({"0.02"})
+    public double cellDegrees;
+
+    private GeoGridIndex<Integer> grid;
+    private double[] lats;
+    private double[] lngs;
+    private double[] probeLats;
+    private double[] probeLngs;
+    private int probe;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        GeoGridIndex.Editor<Integer> editor = new GeoGridIndex<Integer>(cellDegrees).edit();
+        lats = new double[points];
+        lngs = new double[points];
+        for (int i = 0; i < points; i++) {
+            lats[i] = MIN_LAT + random.nextDouble() * SPAN_DEGREES;
+            lngs[i] = MIN_LNG + random.nextDouble() * SPAN_DEGREES;
+            editor.put("d" + i, lats[i], lngs[i], i);
+        }
+        grid = editor.build();
+        probeLats = new double[PROBES];
+        probeLngs = new double[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeLats[i] = MIN_LAT + random.nextDouble() * SPAN_DEGREES;
+            probeLngs[i] = MIN_LNG + random.nextDouble() * SPAN_DEGREES;
+        }
+    }
+
+    @Benchmark
+    public List<Integer> nearest20Within10Km() {
+        int i = probe++ & (PROBES - 1);
+        return grid.nearest(probeLats[i], probeLngs[i], 20, 10, null);
+    }
+
+    @Benchmark
+    public List<Integer> radius5Km() {
+        int i = probe++ & (PROBES - 1);
+        return grid.withinRadius(probeLats[i], probeLngs[i], 5, null);
+    }
+
+    @Benchmark
+    public List<Integer> linearScanNearest20Within10Km() {
+        int i = probe++ & (PROBES - 1);
+        double lat = probeLats[i];
+        double lng = probeLngs[i];
+        return IntStream.range(0, points)
+                .filter(p -> GeoUtils.distanceKm(lat, lng, lats[p], lngs[p]) <= 10)
+                .boxed()
+                .sorted(Comparator.comparingDouble(p -> GeoUtils.distanceKm(lat, lng, lats[p], lngs[p])))
+                .limit(20)
+                .toList();
+    }
+
+    // One copy-on-write edit, as the live index publishes per donation event
+    @Benchmark
+    public void move() {
+        int i = probe++ & (PROBES - 1);
+        int point = i * 31 % points;
+        grid = grid.edit()
+                .remove("d" + point, lats[point], lngs[point])
+                .put("d" + point, probeLats[i], probeLngs[i], point)
+                .build();
+        lats[point] = probeLats[i];
+        lngs[point] = probeLngs[i];
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(GeoGridBenchmark.class.getSimpleName()).build()).run();
+    }
+}
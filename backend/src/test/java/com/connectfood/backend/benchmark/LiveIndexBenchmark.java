@@ -0,0 +1,130 @@
+package com.connectfood.backend.benchmark;
+
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.repository.DonationRepository;
+import com.connectfood.backend.repository.DonationRepositoryImpl;
+import com.connectfood.backend.service.LiveDonationIndex;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one /live page (city prefix, minimum quantity, 50 rows plus the look-ahead row) served
+ * from the in-memory LiveDonationIndex versus the indexed repository query. The "mongo" source
+ * needs a server at MONGODB_TEST_URI (default localhost:27017) and seeds a throwaway database. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.connectfood.backend.benchmark.LiveIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LiveIndexBenchmark {
+
+    private static final String[] CITIES = {"pune", "mumbai", "nagpur", "nashik", "delhi", "bengaluru", "chennai", "kolkata"};
+    private static final int DISTRICTS_PER_CITY = 12;
+    private static final int PAGE = 51;
+
+    @Param({"memory", "mongo"})
+    public String source;
+
+    @Param({"10000"})
+    public int liveDonations;
+
+    private LiveDonationIndex index;
+    private DonationRepositoryImpl repository;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @Setup
+    public void setUp() {
+        List<Donation> donations = seed();
+        if ("memory".equals(source)) {
+            DonationRepository stub = Mockito.mock(DonationRepository.class);
+            Mockito.when(stub.streamLive("", "", Integer.MIN_VALUE)).thenReturn(donations.stream());
+            index = new LiveDonationIndex(stub, new SimpleMeterRegistry());
+            index.resync();
+            return;
+        }
+
+        String uri = System.getenv().getOrDefault("MONGODB_TEST_URI", "mongodb://localhost:27017/?serverSelectionTimeoutMS=2000");
+        client = MongoClients.create(uri);
+        mongoTemplate = new MongoTemplate(client, "connectfood_live_bench_" + new ObjectId());
+        mongoTemplate.executeCommand(new Document("ping", 1));
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(Donation.class)
+                .forEach(mongoTemplate.indexOps(Donation.class)::ensureIndex);
+        mongoTemplate.insertAll(donations);
+        repository = new DonationRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (client != null) {
+            mongoTemplate.getDb().drop();
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public List<Donation> livePage() {
+        return "memory".equals(source)
+                ? index.findLivePage("pune", "", 2, null, PAGE)
+                : repository.findLivePage("pune", "", 2, null, PAGE);
+    }
+
+    private List<Donation> seed() {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        List<Donation> donations = new ArrayList<>(liveDonations);
+        for (int i = 0; i < liveDonations; i++) {
+            Donation donation = new Donation();
+            donation.setId(new ObjectId().toHexString());
+            donation.setDonorEmail("donor" + (i % 500) + "@example.com");
+            donation.setFoodItem("Meal packs");
+            donation.setCity(CITIES[random.nextInt(CITIES.length)]);
+            donation.setDistrict("district-" + random.nextInt(DISTRICTS_PER_CITY));
+            donation.setQuantity(1 + random.nextInt(50));
+            donation.setCreatedAt(new Date(now - random.nextInt(7 * 24 * 3600) * 1000L));
+            donation.refreshDerivedFields();
+            donations.add(donation);
+        }
+        return donations;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(LiveIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
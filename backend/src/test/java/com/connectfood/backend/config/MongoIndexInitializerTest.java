@@ -0,0 +1,128 @@
+package com.connectfood.backend.config;
+
+import com.connectfood.backend.config.IndexedQueries.IndexedQuery;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.Donor;
+import com.connectfood.backend.model.Recipient;
+import com.connectfood.backend.model.UserAccount;
+import com.connectfood.backend.model.UserStats;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MongoIndexInitializerTest {
+
+    @Test
+    void detectsCollectionScanInClassicPlan() {
+        Document explain = plan(new Document("stage", "SORT")
+                .append("inputStage", new Document("stage", "COLLSCAN")));
+
+        assertTrue(MongoIndexInitializer.usesCollectionScan(explain));
+    }
+
+    @Test
+    void acceptsIndexScanPlans() {
+        Document explain = plan(new Document("stage", "LIMIT")
+                .append("inputStage", new Document("stage", "FETCH")
+                        .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "donor_created"))));
+
+        assertFalse(MongoIndexInitializer.usesCollectionScan(explain));
+    }
+
+    @Test
+    void detectsCollectionScanInsideOrBranchesAndSbePlans() {
+        Document or = plan(new Document("stage", "OR").append("inputStages", List.of(
+                new Document("stage", "IXSCAN"),
+                new Document("stage", "COLLSCAN"))));
+        Document sbe = plan(new Document("queryPlan", new Document("stage", "COLLSCAN")));
+
+        assertTrue(MongoIndexInitializer.usesCollectionScan(or));
+        assertTrue(MongoIndexInitializer.usesCollectionScan(sbe));
+    }
+
+    private static Document plan(Document winningPlan) {
+        return new Document("queryPlanner", new Document("winningPlan", winningPlan));
+    }
+
+    /**
+     * Explains every {@link IndexedQueries} shape against a real server. Point MONGODB_TEST_URI at a
+     * local or embedded Mongo to run it; skipped when none is reachable.
+     */
+    @Nested
+    class AgainstLocalMongo {
+
+        private MongoClient client;
+        private MongoTemplate mongoTemplate;
+        private MongoIndexInitializer initializer;
+
+        private void connect() {
+            String uri = System.getenv().getOrDefault("MONGODB_TEST_URI",
+                    "mongodb://localhost:27017/?serverSelectionTimeoutMS=1000");
+            client = MongoClients.create(uri);
+            mongoTemplate = new MongoTemplate(client, "connectfood_index_test_" + UUID.randomUUID().toString().substring(0, 8));
+            try {
+                mongoTemplate.executeCommand(new Document("ping", 1));
+            } catch (Exception e) {
+                assumeTrue(false, "No Mongo reachable for explain-plan tests: " + e.getMessage());
+            }
+
+            MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+            List.of(Donation.class, Donor.class, Recipient.class, UserAccount.class, UserStats.class)
+                    .forEach(mappingContext::getPersistentEntity);
+            initializer = new MongoIndexInitializer();
+            ReflectionTestUtils.setField(initializer, "mongoTemplate", mongoTemplate);
+            ReflectionTestUtils.setField(initializer, "mappingContext", mappingContext);
+            ReflectionTestUtils.setField(initializer, "verification", "fail");
+        }
+
+        @AfterEach
+        void dropDatabase() {
+            if (client != null) {
+                try {
+                    mongoTemplate.getDb().drop();
+                } catch (Exception ignored) {
+                    // Nothing was created when the server was unreachable
+                }
+                client.close();
+            }
+        }
+
+        @Test
+        void everyIndexedQueryAvoidsCollectionScans() {
+            connect();
+            assertDoesNotThrow(() -> initializer.run(null));
+
+            for (IndexedQuery query : IndexedQueries.ALL) {
+                Document explain = mongoTemplate.executeCommand(query.explainCommand());
+                assertFalse(MongoIndexInitializer.usesCollectionScan(explain), query.name() + " is unindexed");
+            }
+        }
+
+        @Test
+        void failsStartupWhenAnIndexCannotBeBuilt() {
+            connect();
+            initializer.run(null);
+            // Duplicate emails written while the unique index was gone keep it from being rebuilt
+            mongoTemplate.indexOps(Donor.class).dropIndex("email");
+            mongoTemplate.insert(new Donor("dup@example.com", "First"));
+            mongoTemplate.insert(new Donor("dup@example.com", "Second"));
+
+            assertThrows(IllegalStateException.class, () -> initializer.run(null));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.dto.BatchItemResult;
+import com.connectfood.backend.event.DonationBatchEvent;
+import com.connectfood.backend.event.DonationEvent;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import com.connectfood.backend.model.Donor;
+import com.connectfood.backend.model.Recipient;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DonationBatchServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulk;
+
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DonationBatchService batchService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertsValidItemsInOneBulkWriteAndReportsEachItem() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Donation.class)).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenReturn(bulk);
+
+        List<BatchItemResult> results = batchService.createAll(donor(),
+                List.of(item("Bread", "Pune", 10), item("Soup", "Pune", 0), item("Rice", "Pune", 5)));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).success());
+        assertFalse(results.get(1).success());
+        assertEquals("quantity must be positive", results.get(1).error());
+        assertTrue(results.get(2).success());
+        assertNotNull(results.get(0).donationId());
+
+        ArgumentCaptor<List<Donation>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulk).insert(inserted.capture());
+        verify(bulk).execute();
+        assertEquals(2, inserted.getValue().size());
+        inserted.getValue().forEach(donation -> {
+            assertEquals("donor@example.com", donation.getDonorEmail());
+            assertEquals(0L, donation.getVersion());
+            assertEquals("pune", donation.getCityKey());
+        });
+        verify(userStatsService).recordDonationsCreated(inserted.getValue());
+        verify(eventPublisher).publishEvent(new DonationBatchEvent(DonationEvent.Type.CREATED, inserted.getValue()));
+    }
+
+    @Test
+    void failedInsertsAreReportedAgainstTheirRequestIndex() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Donation.class)).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenReturn(bulk);
+        // Index 1 within the bulk write is request item 2, since item 0 never reaches Mongo
+        BulkWriteError duplicate = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1);
+        when(bulk.execute()).thenThrow(new BulkOperationException("bulk write failed", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()), List.of(duplicate), null, new ServerAddress(), Set.of())));
+
+        Donation bread = item("Bread", "Pune", 10);
+        List<BatchItemResult> results = batchService.createAll(donor(),
+                List.of(item("Soup", " ", 10), bread, item("Rice", "Pune", 5)));
+
+        assertEquals(List.of(false, true, false), results.stream().map(BatchItemResult::success).toList());
+        assertEquals("city is required", results.get(0).error());
+        assertEquals(2, results.get(2).index());
+        assertTrue(results.get(2).error().contains("duplicate key"));
+        verify(userStatsService).recordDonationsCreated(List.of(bread));
+        verify(eventPublisher).publishEvent(new DonationBatchEvent(DonationEvent.Type.CREATED, List.of(bread)));
+    }
+
+    @Test
+    void skipsTheWriteWhenNoItemIsValid() {
+        Donation expired = item("Bread", "Pune", 10);
+        expired.setExpiryDate(new Date(System.currentTimeMillis() - 60_000));
+
+        List<BatchItemResult> results = batchService.createAll(donor(), List.of(expired));
+
+        assertEquals("expiryDate must be in the future", results.get(0).error());
+        verifyNoInteractions(mongoTemplate, userStatsService, eventPublisher);
+    }
+
+    @Test
+    void initiateReportsWinnersFromTheirOwnWritesAndEveryOtherIdAsLost() {
+        Donation won = reserved("d2", "Food Bank");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Donation.class)))
+                .thenReturn(null, won);
+
+        List<BatchItemResult> results = batchService.initiateAll(recipient(), List.of("d1", "d2", "d1", " "));
+
+        assertEquals(List.of(false, true, false, false), results.stream().map(BatchItemResult::success).toList());
+        assertEquals("Donation is no longer available for collection", results.get(0).error());
+        assertEquals("Duplicate donation id", results.get(2).error());
+        assertEquals("Missing donation id", results.get(3).error());
+        // One conditional write per distinct id, each pinned to AVAILABLE and returning the new document
+        ArgumentCaptor<Query> preconditions = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate, times(2)).findAndModify(preconditions.capture(), any(Update.class), options.capture(), eq(Donation.class));
+        assertEquals(List.of("d1", "d2"), preconditions.getAllValues().stream().map(q -> q.getQueryObject().get("id")).toList());
+        assertEquals("AVAILABLE", preconditions.getValue().getQueryObject().get("status").toString());
+        assertTrue(options.getValue().isReturnNew());
+        verify(userStatsService).recordCollectionsInitiated(List.of(won));
+        verify(eventPublisher).publishEvent(new DonationBatchEvent(DonationEvent.Type.INITIATED, List.of(won)));
+    }
+
+    @Test
+    void collectPublishesNothingWhenNothingWasWon() {
+        List<BatchItemResult> results = batchService.collectAll(recipient(), List.of("d1", "d2"));
+
+        assertTrue(results.stream().noneMatch(BatchItemResult::success));
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Donation.class));
+        verifyNoInteractions(userStatsService, eventPublisher);
+    }
+
+    private static Donation reserved(String id, String organizationName) {
+        Donation donation = item("Bread", "Pune", 10);
+        donation.setId(id);
+        donation.setStatus(DonationStatus.RESERVED);
+        donation.setInitiatedBy(organizationName);
+        return donation;
+    }
+
+    private static Donation item(String foodItem, String city, int quantity) {
+        Donation donation = new Donation();
+        donation.setFoodItem(foodItem);
+        donation.setCity(city);
+        donation.setQuantity(quantity);
+        donation.setExpiryDate(new Date(System.currentTimeMillis() + 3_600_000));
+        return donation;
+    }
+
+    private static Recipient recipient() {
+        return new Recipient("bank@example.com", "Recipient", "LIC-1", "Food Bank");
+    }
+
+    private static Donor donor() {
+        Donor donor = new Donor("donor@example.com", "Donor");
+        donor.setProfileComplete(true);
+        return donor;
+    }
+}
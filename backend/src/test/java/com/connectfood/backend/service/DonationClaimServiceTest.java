@@ -0,0 +1,308 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import com.connectfood.backend.model.Recipient;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The claim guarantees rest on the findAndModify precondition, so the unit tests check that each
+ * call pins the current status in its query and writes the expected update, and walk the state
+ * machine against a single in-memory document. The concurrent race itself is only meaningful
+ * against a real server, see {@link AgainstLocalMongo}.
+ */
+@ExtendWith(MockitoExtension.class)
+class DonationClaimServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private DonationClaimService donationClaimService;
+
+    private SingleDocumentStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new SingleDocumentStore(new Document("id", "d1")
+                .append("donorEmail", "donor@example.com")
+                .append("status", DonationStatus.AVAILABLE)
+                .append("version", 0));
+        lenient().when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+                        any(FindAndModifyOptions.class), eq(Donation.class)))
+                .thenAnswer(inv -> store.findAndModify(inv.getArgument(0), inv.getArgument(1)));
+    }
+
+    @Test
+    void initiatePinsAvailableAndReturnsTheNewDocument() {
+        donationClaimService.initiate("d1", recipient("org-a"));
+
+        Invocation call = lastFindAndModify();
+        assertEquals(new Document("id", "d1").append("status", DonationStatus.AVAILABLE), call.query().getQueryObject());
+        Document set = call.update().getUpdateObject().get("$set", Document.class);
+        assertEquals(DonationStatus.RESERVED, set.get("status"));
+        assertEquals("org-a", set.get("initiatedBy"));
+        assertEquals("org-a@example.com", set.get("initiatedByEmail"));
+        assertNotNull(set.get("initiatedAt"));
+        assertEquals(new Document("version", 1), call.update().getUpdateObject().get("$inc"));
+        assertTrue(call.options().isReturnNew());
+    }
+
+    @Test
+    void collectRequiresTheReservingOrganization() {
+        assertTrue(donationClaimService.initiate("d1", recipient("org-a")).isPresent());
+
+        assertFalse(donationClaimService.collect("d1", "org-b").isPresent());
+        assertTrue(donationClaimService.collect("d1", "org-a").isPresent());
+        assertEquals(DonationStatus.COLLECTED, store.state().get("status"));
+        assertEquals("org-a", store.state().get("collectedBy"));
+    }
+
+    @Test
+    void collectPinsTheReservationHolder() {
+        donationClaimService.collect("d1", "org-a");
+
+        Invocation call = lastFindAndModify();
+        assertEquals(new Document("id", "d1").append("status", DonationStatus.RESERVED).append("initiatedBy", "org-a"),
+                call.query().getQueryObject());
+        Document set = call.update().getUpdateObject().get("$set", Document.class);
+        assertEquals(DonationStatus.COLLECTED, set.get("status"));
+        assertEquals("org-a", set.get("collectedBy"));
+        assertEquals(new Document("version", 1), call.update().getUpdateObject().get("$inc"));
+    }
+
+    @Test
+    void cancelPinsTheDonorAndEveryStatusTheTableAllowsToCancel() {
+        donationClaimService.cancel("d1", "donor@example.com");
+
+        Invocation call = lastFindAndModify();
+        Document query = call.query().getQueryObject();
+        assertEquals("donor@example.com", query.get("donorEmail"));
+        assertEquals(Set.of(DonationStatus.AVAILABLE, DonationStatus.RESERVED),
+                Set.copyOf((Collection<?>) query.get("status", Document.class).get("$in")));
+        assertEquals(DonationStatus.CANCELLED, call.update().getUpdateObject().get("$set", Document.class).get("status"));
+        assertEquals(new Document("version", 1), call.update().getUpdateObject().get("$inc"));
+        assertThrows(IllegalStateException.class,
+                () -> DonationClaimService.transition(Set.of(DonationStatus.AVAILABLE, DonationStatus.EXPIRED), DonationStatus.CANCELLED));
+    }
+
+    @Test
+    void reservedDonationCanBeCancelledButNotCollectedAfterwards() {
+        donationClaimService.initiate("d1", recipient("org-a"));
+
+        assertFalse(donationClaimService.cancel("d1", "someone@example.com").isPresent());
+        Optional<Donation> cancelled = donationClaimService.cancel("d1", "donor@example.com");
+        assertTrue(cancelled.isPresent());
+        assertEquals("org-a", cancelled.get().getInitiatedBy());
+        assertFalse(donationClaimService.collect("d1", "org-a").isPresent());
+        assertEquals(DonationStatus.CANCELLED, store.state().get("status"));
+    }
+
+    @Test
+    void terminalDonationsCannotBeCancelled() {
+        donationClaimService.initiate("d1", recipient("org-a"));
+        donationClaimService.collect("d1", "org-a");
+
+        assertFalse(donationClaimService.cancel("d1", "donor@example.com").isPresent());
+        assertThrows(IllegalStateException.class,
+                () -> DonationStatus.checkTransition(DonationStatus.COLLECTED, DonationStatus.AVAILABLE));
+    }
+
+    @Test
+    void unknownDonationIsNotClaimed() {
+        assertFalse(donationClaimService.initiate("missing", recipient("org-a")).isPresent());
+    }
+
+    private static Recipient recipient(String organizationName) {
+        return new Recipient(organizationName + "@example.com", "Recipient", "LIC-1", organizationName);
+    }
+
+    private Invocation lastFindAndModify() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate, atLeastOnce()).findAndModify(query.capture(), update.capture(), options.capture(), eq(Donation.class));
+        return new Invocation(query.getValue(), update.getValue(), options.getValue());
+    }
+
+    private record Invocation(Query query, Update update, FindAndModifyOptions options) {
+    }
+
+    /**
+     * Many threads racing on one donation against a real server. Point MONGODB_TEST_URI at a local
+     * or embedded Mongo to run it; skipped when none is reachable.
+     */
+    @Nested
+    class AgainstLocalMongo {
+
+        private static final int THREADS = 64;
+
+        private MongoClient client;
+        private MongoTemplate realTemplate;
+        private DonationClaimService realService;
+
+        private void connect() {
+            String uri = System.getenv().getOrDefault("MONGODB_TEST_URI",
+                    "mongodb://localhost:27017/?serverSelectionTimeoutMS=1000");
+            client = MongoClients.create(uri);
+            realTemplate = new MongoTemplate(client, "connectfood_claim_test_" + UUID.randomUUID().toString().substring(0, 8));
+            try {
+                realTemplate.executeCommand(new Document("ping", 1));
+            } catch (Exception e) {
+                assumeTrue(false, "No Mongo reachable for claim race tests: " + e.getMessage());
+            }
+            realService = new DonationClaimService();
+            ReflectionTestUtils.setField(realService, "mongoTemplate", realTemplate);
+        }
+
+        @AfterEach
+        void dropDatabase() {
+            if (client != null) {
+                try {
+                    realTemplate.getDb().drop();
+                } catch (Exception ignored) {
+                    // Nothing was created when the server was unreachable
+                }
+                client.close();
+            }
+        }
+
+        @Test
+        void exactlyOneConcurrentInitiateWinsAndCollectAppliesOnce() throws Exception {
+            connect();
+            Donation donation = realTemplate.insert(new Donation("donor@example.com", "Pune", "Kothrud", "Main Road", 10));
+
+            List<Optional<Donation>> initiated = hammer(i -> realService.initiate(donation.getId(), recipient("org-" + i)));
+            List<Donation> winners = initiated.stream().flatMap(Optional::stream).toList();
+            assertEquals(1, winners.size());
+
+            String holder = winners.get(0).getInitiatedBy();
+            List<Optional<Donation>> collected = hammer(i -> realService.collect(donation.getId(), holder));
+            assertEquals(1, collected.stream().filter(Optional::isPresent).count());
+
+            Donation stored = realTemplate.findById(donation.getId(), Donation.class);
+            assertEquals(DonationStatus.COLLECTED, stored.getStatus());
+            assertEquals(holder, stored.getCollectedBy());
+            assertEquals(2L, stored.getVersion());
+        }
+
+        private List<Optional<Donation>> hammer(IndexedCall call) throws Exception {
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            try {
+                List<Future<Optional<Donation>>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    int index = i;
+                    Callable<Optional<Donation>> task = () -> {
+                        start.await();
+                        return call.run(index);
+                    };
+                    futures.add(pool.submit(task));
+                }
+                start.countDown();
+                List<Optional<Donation>> results = new ArrayList<>();
+                for (Future<Optional<Donation>> future : futures) {
+                    results.add(future.get());
+                }
+                return results;
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedCall {
+        Optional<Donation> run(int index);
+    }
+
+    private static class SingleDocumentStore {
+
+        private final Document document;
+
+        SingleDocumentStore(Document document) {
+            this.document = document;
+        }
+
+        Document state() {
+            return new Document(document);
+        }
+
+        // Equality and $in match on the query, then $set/$inc, returning the updated document
+        Donation findAndModify(Query query, Update update) {
+            for (Map.Entry<String, Object> condition : query.getQueryObject().entrySet()) {
+                Object actual = document.get(condition.getKey());
+                boolean matches = condition.getValue() instanceof Document operator && operator.containsKey("$in")
+                        ? ((Collection<?>) operator.get("$in")).contains(actual)
+                        : Objects.equals(actual, condition.getValue());
+                if (!matches) {
+                    return null;
+                }
+            }
+            Document changes = update.getUpdateObject();
+            document.putAll(changes.get("$set", Document.class));
+            Document increments = changes.get("$inc", Document.class);
+            if (increments != null) {
+                increments.forEach((field, by) ->
+                        document.put(field, document.getInteger(field) + ((Number) by).intValue()));
+            }
+            return toDonation();
+        }
+
+        private Donation toDonation() {
+            Donation donation = new Donation();
+            donation.setId(document.getString("id"));
+            donation.setVersion(document.getInteger("version").longValue());
+            donation.setDonorEmail(document.getString("donorEmail"));
+            donation.setStatus(document.get("status", DonationStatus.class));
+            donation.setInitiatedBy(document.getString("initiatedBy"));
+            donation.setInitiatedAt(document.get("initiatedAt", Date.class));
+            donation.setCollectedBy(document.getString("collectedBy"));
+            donation.setCollectedAt(document.get("collectedAt", Date.class));
+            return donation;
+        }
+    }
+}
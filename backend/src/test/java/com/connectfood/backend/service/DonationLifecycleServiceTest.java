@@ -0,0 +1,139 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.event.DonationEvent;
+import com.connectfood.backend.model.Donation;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DonationLifecycleServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DonationLifecycleService lifecycleService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(lifecycleService, "batchSize", 2);
+        ReflectionTestUtils.setField(lifecycleService, "reservationTtlMinutes", 120L);
+    }
+
+    @Test
+    void releasesOnlyReservationsTheUpdateActuallyChanged() {
+        // d2 was collected between the sweep's read and its update
+        when(mongoTemplate.find(any(Query.class), eq(Donation.class)))
+                .thenReturn(List.of(held("d1", "a@example.com"), held("d2", "b@example.com")))
+                .thenReturn(List.of(donation("d1")))
+                .thenReturn(List.of());
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Donation.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(1, lifecycleService.releaseStaleReservations());
+
+        verify(userStatsService).recordReservationsReleased(List.of("a@example.com"));
+        // Read back by the token the release stamped, not by releasedAt
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(Donation.class));
+        ArgumentCaptor<Query> reads = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).find(reads.capture(), eq(Donation.class));
+        assertEquals(update.getValue().getUpdateObject().get("$set", Document.class).get("sweepToken"),
+                reads.getAllValues().get(1).getQueryObject().get("sweepToken"));
+        ArgumentCaptor<DonationEvent> event = ArgumentCaptor.forClass(DonationEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(DonationEvent.Type.RELEASED, event.getValue().type());
+        assertEquals("d1", event.getValue().donation().getId());
+    }
+
+    @Test
+    void keepsSweepingWhileBatchesAreFull() {
+        when(mongoTemplate.find(any(Query.class), eq(Donation.class)))
+                .thenReturn(List.of(donation("d1"), donation("d2")))
+                .thenReturn(List.of(donation("d1"), donation("d2")))
+                .thenReturn(List.of(donation("d3")))
+                .thenReturn(List.of(donation("d3")));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Donation.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(3, lifecycleService.expireOverdue());
+
+        verify(mongoTemplate, times(2)).updateMulti(any(Query.class), any(Update.class), eq(Donation.class));
+        verify(eventPublisher, times(3)).publishEvent(any(DonationEvent.class));
+    }
+
+    @Test
+    void expiryReadsBackByTheTokenItsUpdateStamped() {
+        when(mongoTemplate.find(any(Query.class), eq(Donation.class)))
+                .thenReturn(List.of(donation("d1")))
+                .thenReturn(List.of(donation("d1")));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Donation.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(1, lifecycleService.expireOverdue());
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(Donation.class));
+        Object sweepToken = update.getValue().getUpdateObject().get("$set", Document.class).get("sweepToken");
+        assertNotNull(sweepToken);
+        ArgumentCaptor<Query> reads = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(reads.capture(), eq(Donation.class));
+        Document readBack = reads.getAllValues().get(1).getQueryObject();
+        assertEquals(sweepToken, readBack.get("sweepToken"));
+        assertFalse(readBack.containsKey("expiredAt"));
+    }
+
+    @Test
+    void nothingOverdueMeansNoWrites() {
+        when(mongoTemplate.find(any(Query.class), eq(Donation.class))).thenReturn(List.of());
+
+        assertEquals(0, lifecycleService.expireOverdue());
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Donation.class));
+        verifyNoInteractions(userStatsService, eventPublisher);
+    }
+
+    private static Donation donation(String id) {
+        Donation donation = new Donation();
+        donation.setId(id);
+        return donation;
+    }
+
+    private static Donation held(String id, String recipientEmail) {
+        Donation donation = donation(id);
+        donation.setInitiatedByEmail(recipientEmail);
+        return donation;
+    }
+}
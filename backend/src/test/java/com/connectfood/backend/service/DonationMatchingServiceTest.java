@@ -0,0 +1,229 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.dto.DonationRecommendation;
+import com.connectfood.backend.event.DonationEvent;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import com.connectfood.backend.model.Recipient;
+import com.connectfood.backend.util.GeoUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DonationMatchingServiceTest {
+
+    private static final double PUNE_LAT = 18.5204;
+    private static final double PUNE_LNG = 73.8567;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LiveDonationIndex liveDonationIndex;
+
+    private DonationMatchingService matchingService;
+    private final List<Donation> live = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        matchingService = new DonationMatchingService(mongoTemplate, liveDonationIndex, 30_000, 2, new SimpleMeterRegistry());
+        lenient().when(liveDonationIndex.isLoaded()).thenReturn(true);
+        lenient().when(liveDonationIndex.isLive(any())).thenReturn(true);
+        lenient().when(liveDonationIndex.allLive()).thenAnswer(inv -> List.copyOf(live));
+        lenient().doAnswer(inv -> {
+            ObjDoubleConsumer<Donation> visitor = inv.getArgument(3);
+            for (Donation donation : live) {
+                if (donation.getLatitude() != null) {
+                    double km = GeoUtils.distanceKm(inv.getArgument(0), inv.getArgument(1), donation.getLatitude(), donation.getLongitude());
+                    if (km <= (double) inv.getArgument(2)) {
+                        visitor.accept(donation, km);
+                    }
+                }
+            }
+            return null;
+        }).when(liveDonationIndex).forEachWithinRadius(anyDouble(), anyDouble(), anyDouble(), any());
+        lenient().doAnswer(inv -> {
+            Consumer<Donation> visitor = inv.getArgument(1);
+            live.stream()
+                    .filter(donation -> donation.getLatitude() == null && donation.getCityKey().equals(inv.getArgument(0)))
+                    .forEach(visitor);
+            return null;
+        }).when(liveDonationIndex).forEachUnlocatedIn(anyString(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchingService.shutdown();
+    }
+
+    @Test
+    void ranksCloserFamiliarAndUrgentDonationsFirst() {
+        live.add(donation("far", "donor-b@example.com", 19.0760, 72.8777, 10, 72));
+        live.add(donation("near", "donor-b@example.com", 18.5300, 73.8500, 10, 72));
+        live.add(donation("near-familiar", "donor-a@example.com", 18.5300, 73.8500, 10, 72));
+        live.add(donation("near-familiar-urgent", "donor-a@example.com", 18.5300, 73.8500, 10, 2));
+        withHistory("org@example.com", "Org", historyNearPune());
+
+        matchingService.rescoreAll();
+
+        List<DonationRecommendation> recommended = matchingService.recommend(recipient("org@example.com"), null, null, 10);
+        assertEquals(List.of("near-familiar-urgent", "near-familiar", "near"), ids(recommended));
+        assertTrue(recommended.get(0).distanceKm() < 2);
+    }
+
+    @Test
+    void newAndClaimedDonationsUpdateRankingsIncrementally() {
+        live.add(donation("d1", "donor-b@example.com", 18.5300, 73.8500, 10, 72));
+        withHistory("org@example.com", "Org", historyNearPune());
+        matchingService.rescoreAll();
+
+        Donation created = donation("d2", "donor-a@example.com", 18.5210, 73.8570, 10, 72);
+        matchingService.onDonationEvent(new DonationEvent(DonationEvent.Type.CREATED, created));
+        assertEquals(List.of("d2", "d1"), ids(matchingService.recommend(recipient("org@example.com"), null, null, 10)));
+
+        Donation claimed = donation("d2", "donor-a@example.com", 18.5210, 73.8570, 10, 72);
+        claimed.setStatus(DonationStatus.RESERVED);
+        matchingService.onDonationEvent(new DonationEvent(DonationEvent.Type.INITIATED, claimed));
+        assertEquals(List.of("d1"), ids(matchingService.recommend(recipient("org@example.com"), null, null, 10)));
+    }
+
+    @Test
+    void recipientsWithoutHistoryShareTheGenericRanking() {
+        live.add(donation("later", "donor-a@example.com", null, null, 10, 96));
+        live.add(donation("soon", "donor-a@example.com", null, null, 10, 3));
+        withHistory("new@example.com", "New Org", List.of());
+
+        matchingService.rescoreAll();
+
+        List<DonationRecommendation> recommended = matchingService.recommend(recipient("new@example.com"), null, null, 10);
+        assertEquals(List.of("soon", "later"), ids(recommended));
+        assertNull(recommended.get(0).distanceKm());
+    }
+
+    @Test
+    void ignoresACreatedEventTheIndexNoLongerHoldsAsLive() {
+        withHistory("org@example.com", "Org", historyNearPune());
+        matchingService.rescoreAll();
+
+        // Its claim was applied to the index before this late-running event
+        Donation created = donation("d1", "donor-a@example.com", 18.5210, 73.8570, 10, 72);
+        when(liveDonationIndex.isLive(created)).thenReturn(false);
+        matchingService.onDonationEvent(new DonationEvent(DonationEvent.Type.CREATED, created));
+
+        assertTrue(matchingService.recommend(recipient("org@example.com"), null, null, 10).isEmpty());
+    }
+
+    @Test
+    void dropsADonationClaimedWhileItsCreationWasBeingOffered() {
+        withHistory("org@example.com", "Org", historyNearPune());
+        matchingService.rescoreAll();
+
+        // Live when the event is checked, claimed by the time its offers land
+        Donation created = donation("d1", "donor-a@example.com", 18.5210, 73.8570, 10, 72);
+        when(liveDonationIndex.isLive(created)).thenReturn(true, false);
+        matchingService.onDonationEvent(new DonationEvent(DonationEvent.Type.CREATED, created));
+
+        // Even once the index reports it live again, the rankings no longer hold it
+        lenient().when(liveDonationIndex.isLive(created)).thenReturn(true);
+        assertTrue(matchingService.recommend(recipient("org@example.com"), null, null, 10).isEmpty());
+    }
+
+    @Test
+    void recommendSkipsStoredMatchesTheIndexNoLongerHolds() {
+        live.add(donation("d1", "donor-b@example.com", 18.5300, 73.8500, 10, 72));
+        live.add(donation("d2", "donor-a@example.com", 18.5300, 73.8500, 10, 72));
+        withHistory("org@example.com", "Org", historyNearPune());
+        matchingService.rescoreAll();
+
+        // Claimed, but its removal from the stored rankings has not run yet
+        when(liveDonationIndex.isLive(argThat(donation -> donation != null && "d2".equals(donation.getId())))).thenReturn(false);
+
+        assertEquals(List.of("d1"), ids(matchingService.recommend(recipient("org@example.com"), null, null, 10)));
+    }
+
+    @Test
+    void keepsOnlyTheBestTopK() {
+        for (int i = 0; i < DonationMatchingService.TOP_K + 20; i++) {
+            live.add(donation("d" + i, "donor-a@example.com", null, null, 10, 1 + i));
+        }
+
+        List<DonationMatchingService.Scored> ranked = DonationMatchingService.topK(
+                DonationMatchingService.RecipientProfile.withoutHistory(null), live, System.currentTimeMillis());
+
+        assertEquals(DonationMatchingService.TOP_K, ranked.size());
+        assertEquals("d0", ranked.get(0).donation().getId());
+        for (int i = 1; i < ranked.size(); i++) {
+            assertTrue(ranked.get(i - 1).score() >= ranked.get(i).score());
+        }
+    }
+
+    private void withHistory(String email, String organizationName, List<Document> history) {
+        Recipient recipient = recipient(email);
+        recipient.setOrganizationName(organizationName);
+        when(mongoTemplate.find(any(Query.class), eq(Recipient.class))).thenReturn(List.of(recipient));
+        List<Document> groups = history.stream().map(group -> new Document(group).append("_id", organizationName)).toList();
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Donation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(groups, new Document()));
+    }
+
+    private static List<Document> historyNearPune() {
+        return List.of(new Document("collected", 12)
+                .append("typicalQuantity", 10.0)
+                .append("latitude", PUNE_LAT)
+                .append("longitude", PUNE_LNG)
+                .append("donors", List.of("donor-a@example.com"))
+                .append("cityKeys", List.of("pune")));
+    }
+
+    private static Recipient recipient(String email) {
+        Recipient recipient = new Recipient();
+        recipient.setEmail(email);
+        recipient.setProfileComplete(true);
+        return recipient;
+    }
+
+    private static Donation donation(String id, String donorEmail, Double lat, Double lng, int quantity, long hoursToExpiry) {
+        Donation donation = new Donation();
+        donation.setId(id);
+        donation.setDonorEmail(donorEmail);
+        donation.setCity("Pune");
+        donation.setQuantity(quantity);
+        donation.setLatitude(lat);
+        donation.setLongitude(lng);
+        donation.setCreatedAt(new Date());
+        donation.setExpiryDate(new Date(System.currentTimeMillis() + hoursToExpiry * 3_600_000L));
+        donation.refreshDerivedFields();
+        return donation;
+    }
+
+    private static List<String> ids(List<DonationRecommendation> recommendations) {
+        return recommendations.stream().map(recommendation -> recommendation.donation().getId()).toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.connectfood.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DonationStreamServiceTest {
+
+    private static final int THREADS = 32;
+
+    private DonationStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new DonationStreamService();
+        ReflectionTestUtils.setField(streamService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(streamService, "maxSubscribers", 10);
+    }
+
+    @Test
+    void concurrentSubscribersNeverExceedTheLimit() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Optional<SseEmitter>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return streamService.subscribe("Pune", "", null, null, 5);
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<Optional<SseEmitter>> future : futures) {
+                accepted += future.get().isPresent() ? 1 : 0;
+            }
+            assertEquals(10, accepted);
+            assertEquals(10, streamService.subscriberCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void aDroppedSubscriberFreesItsSlotOnce() {
+        SseEmitter gone = streamService.subscribe("Pune", "", null, null, 5).orElseThrow();
+        streamService.subscribe("Pune", "", null, null, 5).orElseThrow();
+        gone.complete();
+
+        // The first failed send drops it, the next heartbeat no longer sees it
+        streamService.heartbeat();
+        streamService.heartbeat();
+
+        assertEquals(1, streamService.subscriberCount());
+        assertTrue(streamService.subscribe("Pune", "", null, null, 5).isPresent());
+    }
+}
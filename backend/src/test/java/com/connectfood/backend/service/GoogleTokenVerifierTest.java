@@ -0,0 +1,209 @@
+package com.connectfood.backend.service;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Runs the verifier against a local JWKS stub instead of Google, with a hand-driven clock so key
+ * expiry and rotation can be stepped through without waiting or network access.
+ */
+class GoogleTokenVerifierTest {
+
+    private static final String CLIENT_ID = "test-client.apps.googleusercontent.com";
+    private static final String CERTS_URL = "https://keys.test/oauth2/v3/certs";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final Map<String, KeyPair> published = new LinkedHashMap<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private volatile boolean keyServerDown;
+
+    private GoogleSigningKeys signingKeys;
+    private GoogleTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        published.put("key-1", newKeyPair());
+        signingKeys = new GoogleSigningKeys(new KeyServerStub(), CERTS_URL, clock, null);
+        verifier = new GoogleTokenVerifier(CLIENT_ID, 100, signingKeys, clock, null);
+    }
+
+    @Test
+    void verifiesTokenAndServesRepeatsFromCache() throws Exception {
+        String token = sign("key-1", CLIENT_ID, Duration.ofHours(1));
+
+        GoogleIdToken.Payload first = verifier.verify(token);
+        GoogleIdToken.Payload second = verifier.verify(token);
+
+        assertNotNull(first);
+        assertEquals("user@example.com", first.getEmail());
+        assertSame(first, second);
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void rejectsForeignAudienceExpiredAndForgedTokens() throws Exception {
+        assertNull(verifier.verify(sign("key-1", "someone-else", Duration.ofHours(1))));
+        assertNull(verifier.verify(sign("key-1", CLIENT_ID, Duration.ofMinutes(-10))));
+        assertNull(verifier.verify("not-a-jwt"));
+
+        KeyPair attacker = newKeyPair();
+        assertNull(verifier.verify(sign("key-1", attacker, CLIENT_ID, Duration.ofHours(1))));
+    }
+
+    @Test
+    void cachedTokenStopsVerifyingAfterItsExpiry() throws Exception {
+        String token = sign("key-1", CLIENT_ID, Duration.ofMinutes(1));
+        assertNotNull(verifier.verify(token));
+
+        clock.advance(Duration.ofMinutes(10));
+
+        assertNull(verifier.verify(token));
+    }
+
+    @Test
+    void backgroundRefreshHonoursMaxAge() throws Exception {
+        signingKeys.refreshIfDue();
+        assertEquals(1, fetches.get());
+
+        // max-age is one hour and refreshes start five minutes ahead of expiry
+        clock.advance(Duration.ofMinutes(50));
+        signingKeys.refreshIfDue();
+        assertEquals(1, fetches.get());
+
+        clock.advance(Duration.ofMinutes(6));
+        signingKeys.refreshIfDue();
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void unknownKeyTriggersOneRefreshForRotation() throws Exception {
+        assertNotNull(verifier.verify(sign("key-1", CLIENT_ID, Duration.ofHours(1))));
+
+        published.put("key-2", newKeyPair());
+        assertNotNull(verifier.verify(sign("key-2", CLIENT_ID, Duration.ofHours(1))));
+        assertEquals(2, fetches.get());
+
+        // Unknown ids right after that refresh are rejected without going back to the key server
+        assertNull(verifier.verify(sign("key-3", newKeyPair(), CLIENT_ID, Duration.ofHours(1))));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void keepsVerifyingWithHeldKeysWhileKeyServerIsDown() throws Exception {
+        signingKeys.refreshIfDue();
+        keyServerDown = true;
+
+        clock.advance(Duration.ofHours(2));
+        signingKeys.refreshIfDue();
+
+        assertNotNull(verifier.verify(sign("key-1", CLIENT_ID, Duration.ofHours(1))));
+    }
+
+    private String sign(String keyId, String audience, Duration lifetime) throws Exception {
+        return sign(keyId, published.get(keyId), audience, lifetime);
+    }
+
+    private String sign(String keyId, KeyPair keyPair, String audience, Duration lifetime) throws Exception {
+        JsonWebSignature.Header header = new JsonWebSignature.Header().setAlgorithm("RS256").setKeyId(keyId);
+        long now = clock.instant().getEpochSecond();
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload()
+                .setIssuer("https://accounts.google.com")
+                .setAudience(audience)
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + lifetime.toSeconds())
+                .setEmail("user@example.com");
+        return JsonWebSignature.signUsingRsaSha256(keyPair.getPrivate(), GsonFactory.getDefaultInstance(), header, payload);
+    }
+
+    private static KeyPair newKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private String jwks() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return published.entrySet().stream()
+                .map(entry -> {
+                    RSAPublicKey key = (RSAPublicKey) entry.getValue().getPublic();
+                    return String.format("{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"%s\",\"n\":\"%s\",\"e\":\"%s\"}",
+                            entry.getKey(),
+                            encoder.encodeToString(key.getModulus().toByteArray()),
+                            encoder.encodeToString(key.getPublicExponent().toByteArray()));
+                })
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+    }
+
+    private class KeyServerStub extends MockHttpTransport {
+
+        @Override
+        public MockLowLevelHttpRequest buildRequest(String method, String url) {
+            return new MockLowLevelHttpRequest(url) {
+                @Override
+                public MockLowLevelHttpResponse execute() {
+                    fetches.incrementAndGet();
+                    if (keyServerDown) {
+                        return new MockLowLevelHttpResponse().setStatusCode(503);
+                    }
+                    return new MockLowLevelHttpResponse()
+                            .setContentType("application/json")
+                            .addHeader("Cache-Control", "public, max-age=3600, must-revalidate, no-transform")
+                            .setContent(jwks());
+                }
+            };
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
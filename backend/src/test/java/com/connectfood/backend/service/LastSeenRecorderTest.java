@@ -0,0 +1,113 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.model.Donor;
+import com.connectfood.backend.model.Recipient;
+import com.connectfood.backend.model.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LastSeenRecorderTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations donorBulk;
+
+    @Mock
+    private BulkOperations recipientBulk;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LastSeenRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new LastSeenRecorder(mongoTemplate, 2, meterRegistry);
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Donor.class)).thenReturn(donorBulk);
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipient.class)).thenReturn(recipientBulk);
+    }
+
+    @Test
+    void coalescesRepeatedViewsIntoOneMaxUpdatePerUser() {
+        recorder.record("donor@example.com", Role.DONOR);
+        recorder.record("donor@example.com", Role.DONOR);
+        recorder.record("org@example.com", Role.RECIPIENT);
+
+        recorder.flush();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(donorBulk, times(1)).updateOne(any(Query.class), update.capture());
+        verify(recipientBulk, times(1)).updateOne(any(Query.class), any(Update.class));
+        verify(donorBulk).execute();
+        verify(recipientBulk).execute();
+        Document max = update.getValue().getUpdateObject().get("$max", Document.class);
+        assertEquals(Date.class, max.get("lastLoginAt").getClass());
+        assertEquals(2, meterRegistry.get("lastseen.flush.size").summary().totalAmount());
+
+        // Nothing left to write on the next tick
+        recorder.flush();
+        verify(donorBulk, times(1)).execute();
+    }
+
+    @Test
+    void dropsNewUsersWhenFullButKeepsUpdatingPendingOnes() {
+        recorder.record("a@example.com", Role.DONOR);
+        recorder.record("b@example.com", Role.DONOR);
+        recorder.record("c@example.com", Role.DONOR);
+        recorder.record("a@example.com", Role.DONOR);
+
+        assertEquals(1, meterRegistry.get("lastseen.dropped").counter().count());
+
+        recorder.flush();
+        verify(donorBulk, times(2)).updateOne(any(Query.class), any(Update.class));
+    }
+
+    @Test
+    void failedFlushIsRetriedOnTheNextTick() {
+        when(donorBulk.execute())
+                .thenThrow(new DataAccessResourceFailureException("mongo down"))
+                .thenReturn(null);
+        recorder.record("donor@example.com", Role.DONOR);
+
+        recorder.flush();
+        recorder.flush();
+        verify(donorBulk, times(2)).updateOne(any(Query.class), any(Update.class));
+        verify(donorBulk, times(2)).execute();
+    }
+
+    @Test
+    void lastSeenReadsTheStoredTimestampUncachedUnlessAPendingOneIsNewer() {
+        Donor stored = new Donor();
+        stored.setLastLoginAt(new Date(1_000));
+        when(mongoTemplate.findOne(any(Query.class), eq(Donor.class))).thenReturn(stored);
+
+        assertEquals(new Date(1_000), recorder.lastSeen("donor@example.com", Role.DONOR));
+
+        recorder.record("donor@example.com", Role.DONOR);
+        assertTrue(recorder.lastSeen("donor@example.com", Role.DONOR).getTime() > 1_000);
+    }
+}
@@ -0,0 +1,219 @@
+package com.connectfood.backend.service;
+
+import com.connectfood.backend.dto.DonationCursor;
+import com.connectfood.backend.event.DonationBatchEvent;
+import com.connectfood.backend.event.DonationEvent;
+import com.connectfood.backend.model.Donation;
+import com.connectfood.backend.model.DonationStatus;
+import com.connectfood.backend.repository.DonationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LiveDonationIndexTest {
+
+    @Mock
+    private DonationRepository donationRepository;
+
+    private LiveDonationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LiveDonationIndex(donationRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void fallsBackToMongoUntilLoaded() {
+        when(donationRepository.findLivePage("Pune", "", 0, null, 10)).thenReturn(List.of(donation("d1", "Pune", "Kothrud", 1, 5)));
+
+        assertEquals(List.of("d1"), ids(index.findLivePage("Pune", "", 0, null, 10)));
+    }
+
+    @Test
+    void answersPrefixQueriesNewestFirstAcrossBuckets() {
+        load(donation("d1", "Pune", "Kothrud", 1, 5),
+                donation("d2", "Pune", "Baner", 2, 1),
+                donation("d3", "Punjab", "Amritsar", 3, 5),
+                donation("d4", "Mumbai", "Andheri", 4, 5));
+
+        assertEquals(List.of("d3", "d2", "d1"), ids(index.findLivePage("pun", "", 0, null, 10)));
+        assertEquals(List.of("d3", "d1"), ids(index.findLivePage(" PUN ", "", 2, null, 10)));
+        assertEquals(List.of("d2"), ids(index.findLivePage("Pune", "ban", 0, null, 10)));
+        verify(donationRepository).streamLive("", "", Integer.MIN_VALUE);
+        verifyNoMoreInteractions(donationRepository);
+    }
+
+    @Test
+    void cursorResumesAfterTheLastDonationOfThePreviousPage() {
+        load(donation("d1", "Pune", "Kothrud", 1, 5),
+                donation("d2", "Pune", "Baner", 2, 5),
+                donation("d3", "Pune", "Kothrud", 2, 5),
+                donation("d4", "Pune", "Baner", 3, 5));
+
+        List<Donation> first = index.findLivePage("pune", "", 0, null, 2);
+        List<Donation> second = index.findLivePage("pune", "", 0, DonationCursor.after(first.get(1)), 2);
+
+        assertEquals(List.of("d4", "d3"), ids(first));
+        assertEquals(List.of("d2", "d1"), ids(second));
+    }
+
+    @Test
+    void followsDonationEvents() {
+        load(donation("d1", "Pune", "Kothrud", 1, 5));
+
+        index.onDonationEvent(new DonationEvent(DonationEvent.Type.CREATED, donation("d2", "Pune", "Baner", 2, 5)));
+        Donation reserved = donation("d1", "Pune", "Kothrud", 1, 5);
+        reserved.setStatus(DonationStatus.RESERVED);
+        index.onDonationEvent(new DonationEvent(DonationEvent.Type.INITIATED, reserved));
+
+        assertEquals(List.of("d2"), ids(index.findLivePage("", "", 0, null, 10)));
+        List<Donation> unlocatedInPune = new ArrayList<>();
+        index.forEachUnlocatedIn("pune", unlocatedInPune::add);
+        assertEquals(List.of("d2"), ids(unlocatedInPune));
+    }
+
+    @Test
+    void appliesABatchAcrossBucketsInOnePass() {
+        load(donation("d1", "Pune", "Kothrud", 1, 5), donation("d2", "Mumbai", "Andheri", 2, 5));
+
+        index.onDonationBatch(new DonationBatchEvent(DonationEvent.Type.CREATED, List.of(
+                donation("d3", "Pune", "Kothrud", 3, 5),
+                located(donation("d4", "Pune", "Baner", 4, 5), 18.5590, 73.7868),
+                donation("d5", "Nashik", "Panchavati", 5, 5))));
+        Donation reserved = donation("d2", "Mumbai", "Andheri", 2, 5);
+        reserved.setStatus(DonationStatus.RESERVED);
+        Donation neverIndexed = donation("d9", "Pune", "Kothrud", 9, 5);
+        neverIndexed.setStatus(DonationStatus.RESERVED);
+        index.onDonationBatch(new DonationBatchEvent(DonationEvent.Type.INITIATED, List.of(reserved, neverIndexed)));
+
+        assertEquals(List.of("d5", "d4", "d3", "d1"), ids(index.findLivePage("", "", 0, null, 10)));
+        assertEquals(List.of("d3", "d1"), ids(index.findLivePage("pune", "kothrud", 0, null, 10)));
+        assertEquals(List.of(), ids(index.findLivePage("mumbai", "", 0, null, 10)));
+        assertEquals(List.of("d4"), ids(index.findNearby(18.5590, 73.7868, 5, 0, 10)));
+        List<Donation> unlocatedInPune = new ArrayList<>();
+        index.forEachUnlocatedIn("pune", unlocatedInPune::add);
+        assertEquals(List.of("d1", "d3"), unlocatedInPune.stream().map(Donation::getId).sorted().toList());
+    }
+
+    @Test
+    void dropsEventsOlderThanWhatIsIndexed() {
+        Donation reserved = located(donation("d1", "Pune", "Kothrud", 1, 5), 18.5074, 73.8077);
+        reserved.setStatus(DonationStatus.RESERVED);
+        reserved.setVersion(1L);
+        load(donation("d2", "Pune", "Baner", 2, 5));
+
+        // Re-claim (v3) overtakes the release (v2) it followed
+        Donation reclaimed = versioned(reserved, DonationStatus.RESERVED, 3);
+        Donation released = versioned(reserved, DonationStatus.AVAILABLE, 2);
+        index.onDonationEvent(new DonationEvent(DonationEvent.Type.INITIATED, reclaimed));
+        index.onDonationEvent(new DonationEvent(DonationEvent.Type.RELEASED, released));
+        assertEquals(List.of("d2"), ids(index.findLivePage("", "", 0, null, 10)));
+        assertEquals(List.of(), ids(index.findNearby(18.5074, 73.8077, 5, 0, 10)));
+
+        // A resync read that already has v3 available again ignores the replayed v2 reservation
+        Donation availableAgain = versioned(reserved, DonationStatus.AVAILABLE, 4);
+        when(donationRepository.streamLive("", "", Integer.MIN_VALUE)).thenAnswer(inv -> {
+            index.onDonationEvent(new DonationEvent(DonationEvent.Type.INITIATED, versioned(reserved, DonationStatus.RESERVED, 3)));
+            return Stream.of(availableAgain);
+        });
+        index.resync();
+        assertEquals(List.of("d1"), ids(index.findLivePage("", "", 0, null, 10)));
+    }
+
+    @Test
+    void nearbySearchUsesTheGridOnceLoaded() {
+        Donation close = located(donation("d1", "Pune", "Kothrud", 1, 5), 18.5074, 73.8077);
+        Donation closer = located(donation("d2", "Pune", "Shivajinagar", 2, 5), 18.5308, 73.8475);
+        Donation small = located(donation("d3", "Pune", "Deccan", 3, 1), 18.5167, 73.8411);
+        Donation far = located(donation("d4", "Mumbai", "Andheri", 4, 5), 19.1136, 72.8697);
+        load(close, closer, small, far);
+
+        assertEquals(List.of("d2", "d1"), ids(index.findNearby(18.5204, 73.8567, 10, 2, 10)));
+
+        Donation claimed = located(donation("d2", "Pune", "Shivajinagar", 2, 5), 18.5308, 73.8475);
+        claimed.setStatus(DonationStatus.RESERVED);
+        index.onDonationEvent(new DonationEvent(DonationEvent.Type.INITIATED, claimed));
+        assertEquals(List.of("d1"), ids(index.findNearby(18.5204, 73.8567, 10, 2, 10)));
+    }
+
+    @Test
+    void changesMadeWhileResyncingAreNotLost() {
+        Donation claimedMidResync = donation("d1", "Pune", "Kothrud", 1, 5);
+        claimedMidResync.setStatus(DonationStatus.RESERVED);
+        // The resync read still sees d1 as available, but its claim lands before the snapshot is swapped in
+        when(donationRepository.streamLive("", "", Integer.MIN_VALUE)).thenAnswer(inv -> {
+            index.onDonationEvent(new DonationEvent(DonationEvent.Type.INITIATED, claimedMidResync));
+            return Stream.of(donation("d1", "Pune", "Kothrud", 1, 5), donation("d2", "Pune", "Baner", 2, 5));
+        });
+
+        index.resync();
+
+        assertEquals(List.of("d2"), ids(index.findLivePage("", "", 0, null, 10)));
+    }
+
+    @Test
+    void failedResyncKeepsServingTheLastSnapshot() {
+        load(donation("d1", "Pune", "Kothrud", 1, 5));
+        when(donationRepository.streamLive(anyString(), anyString(), anyInt()))
+                .thenThrow(new DataAccessResourceFailureException("mongo down"));
+
+        index.resync();
+
+        assertEquals(List.of("d1"), ids(index.findLivePage("", "", 0, null, 10)));
+        verify(donationRepository, never()).findLivePage(anyString(), anyString(), anyInt(), any(), anyInt());
+    }
+
+    private void load(Donation... donations) {
+        when(donationRepository.streamLive("", "", Integer.MIN_VALUE)).thenReturn(Stream.of(donations));
+        index.resync();
+    }
+
+    private static Donation donation(String id, String city, String district, long createdAt, int quantity) {
+        Donation donation = new Donation();
+        donation.setId(id);
+        donation.setCity(city);
+        donation.setDistrict(district);
+        donation.setQuantity(quantity);
+        donation.setCreatedAt(new Date(createdAt));
+        donation.refreshDerivedFields();
+        return donation;
+    }
+
+    private static Donation versioned(Donation source, DonationStatus status, long version) {
+        Donation copy = located(donation(source.getId(), source.getCity(), source.getDistrict(),
+                source.getCreatedAt().getTime(), source.getQuantity()), source.getLatitude(), source.getLongitude());
+        copy.setStatus(status);
+        copy.setVersion(version);
+        return copy;
+    }
+
+    private static Donation located(Donation donation, double lat, double lng) {
+        donation.setLatitude(lat);
+        donation.setLongitude(lng);
+        donation.refreshDerivedFields();
+        return donation;
+    }
+
+    private static List<String> ids(List<Donation> donations) {
+        return donations.stream().map(Donation::getId).toList();
+    }
+}
@@ -0,0 +1,87 @@
+package com.connectfood.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoGridIndexTest {
+
+    private record Place(String id, double lat, double lng, int quantity) {
+    }
+
+    @Test
+    void matchesBruteForceForRadiusAndNearest() {
+        Random random = new Random(7);
+        GeoGridIndex.Editor<Place> editor = new GeoGridIndex<Place>(0.02).edit();
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Place place = new Place("p" + i, 18.3 + random.nextDouble() * 0.5, 73.6 + random.nextDouble() * 0.5, random.nextInt(10));
+            places.add(place);
+            editor.put(place.id(), place.lat(), place.lng(), place);
+        }
+        GeoGridIndex<Place> index = editor.build();
+
+        for (int probe = 0; probe < 50; probe++) {
+            double lat = 18.3 + random.nextDouble() * 0.5;
+            double lng = 73.6 + random.nextDouble() * 0.5;
+            Comparator<Place> byDistance = Comparator.comparingDouble(place -> GeoUtils.distanceKm(lat, lng, place.lat(), place.lng()));
+
+            List<Place> expectedWithin = places.stream()
+                    .filter(place -> GeoUtils.distanceKm(lat, lng, place.lat(), place.lng()) <= 3)
+                    .sorted(byDistance)
+                    .toList();
+            assertEquals(expectedWithin, index.withinRadius(lat, lng, 3, null));
+
+            List<Place> expectedNearest = places.stream()
+                    .filter(place -> place.quantity() >= 5)
+                    .filter(place -> GeoUtils.distanceKm(lat, lng, place.lat(), place.lng()) <= 20)
+                    .sorted(byDistance)
+                    .limit(25)
+                    .toList();
+            assertEquals(expectedNearest, index.nearest(lat, lng, 25, 20, place -> place.quantity() >= 5));
+        }
+    }
+
+    @Test
+    void findsNeighboursAcrossTheAntimeridian() {
+        GeoGridIndex<String> index = new GeoGridIndex<String>(0.5).edit()
+                .put("east", -17.7, 179.9, "east")
+                .put("west", -17.7, -179.9, "west")
+                .build();
+
+        assertEquals(List.of("east", "west"), index.nearest(-17.7, 179.95, 5, 50, null));
+    }
+
+    @Test
+    void editsBuildANewIndexAndLeaveTheOldOneUnchanged() {
+        GeoGridIndex<String> before = new GeoGridIndex<String>(0.02).edit()
+                .put("d1", 18.52, 73.85, "d1")
+                .put("d2", 18.52, 73.85, "d2")
+                .build();
+
+        GeoGridIndex<String> moved = before.edit()
+                .remove("d1", 18.52, 73.85)
+                .put("d1", 19.07, 72.87, "d1-moved")
+                .put("d2", 18.52, 73.85, "d2-updated")
+                .build();
+
+        assertEquals(2, moved.size());
+        assertEquals(List.of("d2-updated"), moved.withinRadius(18.52, 73.85, 5, null));
+        assertEquals(List.of("d1-moved"), moved.withinRadius(19.07, 72.87, 5, null));
+        assertEquals(List.of("d1", "d2"), before.withinRadius(18.52, 73.85, 5, null));
+        assertTrue(before.withinRadius(19.07, 72.87, 5, null).isEmpty());
+
+        GeoGridIndex<String> removed = moved.edit().remove("d1", 19.07, 72.87).remove("d1", 19.07, 72.87).build();
+        assertEquals(1, removed.size());
+        assertTrue(removed.nearest(19.07, 72.87, 10, 100, null).isEmpty());
+        // An edit that changes nothing hands back the same index
+        assertSame(removed, removed.edit().remove("missing", 18.52, 73.85).build());
+    }
+}
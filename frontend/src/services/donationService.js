@@ -1,11 +1,28 @@
 import api from "./api";
 
+// Largest page the listing endpoints serve
+const PAGE_SIZE = 200;
+
+// Listing endpoints are paged; follows X-Next-Cursor until the last page
+async function fetchAllPages(path, params = new URLSearchParams()) {
+  const items = [];
+  let cursor = null;
+  do {
+    const query = new URLSearchParams(params);
+    query.set("limit", PAGE_SIZE);
+    if (cursor) query.set("cursor", cursor);
+    const response = await api.get(`${path}?${query}`);
+    items.push(...response.data);
+    cursor = response.headers["x-next-cursor"];
+  } while (cursor);
+  return items;
+}
+
 export const donationService = {
   // Get user's donations (for donors)
   async getUserDonations() {
     try {
-      const response = await api.get("/donations/my");
-      return response.data;
+      return await fetchAllPages("/donations/my");
     } catch (error) {
       throw new Error(
         error.response?.data?.message || "Failed to fetch donations"
@@ -22,8 +39,7 @@ export const donationService = {
       if (filters.minQuantity)
         params.append("minQuantity", filters.minQuantity);
 
-      const response = await api.get(`/donations/live?${params}`);
-      return response.data;
+      return await fetchAllPages("/donations/live", params);
     } catch (error) {
       throw new Error(
         error.response?.data?.message || "Failed to fetch available donations"